@@ -0,0 +1,72 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.Fen;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for FEN parsing and formatting, measured as positions per second.
+ * <p>
+ * On one core, a load plus format round trip runs at about one million per
+ * second for the full START and KIWIPETE boards and about two million for
+ * ENDGAME, so full boards fall short of millions of round trips per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FenBenchmark {
+    @Param({"START", "KIWIPETE", "ENDGAME"})
+    public Positions position;
+
+    private String fen;
+    private ChessGame game;
+    private final ChessGame loaded = new ChessGame();
+    private final StringBuilder out = new StringBuilder(90);
+
+    @Setup
+    public void setUp() {
+        game = position.newGame();
+        fen = Fen.format(game);
+    }
+
+    @Benchmark
+    public ChessGame parse() {
+        return Fen.parse(fen);
+    }
+
+    @Benchmark
+    public long load() {
+        Fen.load(fen, loaded);
+        return loaded.getZobristKey();
+    }
+
+    @Benchmark
+    public int format() {
+        out.setLength(0);
+        Fen.append(game, out);
+        return out.length();
+    }
+
+    @Benchmark
+    public int roundTrip() {
+        out.setLength(0);
+        Fen.load(fen, loaded);
+        Fen.append(loaded, out);
+        return out.length();
+    }
+}
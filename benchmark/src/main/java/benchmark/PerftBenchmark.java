@@ -0,0 +1,69 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ParallelPerft;
+import chess.Perft;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for move generation, measured as perft runs per second.
+ * <p>
+ * Build with {@code mvn -pl benchmark -am package} and run
+ * {@code java -jar benchmark/target/benchmarks.jar}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+    @Param({"START", "KIWIPETE", "ENDGAME"})
+    public Positions position;
+
+    @Param({"3"})
+    public int depth;
+
+    private ChessGame game;
+    private Perft perft;
+    private ParallelPerft parallelPerft;
+
+    @Setup
+    public void setUp() {
+        game = position.newGame();
+        perft = new Perft();
+        parallelPerft = new ParallelPerft();
+    }
+
+    @Benchmark
+    public long perft() {
+        return perft.count(game, depth);
+    }
+
+    @Benchmark
+    public long parallelPerft() {
+        return parallelPerft.count(game, depth);
+    }
+
+    @Benchmark
+    public boolean hasAnyLegalMove() {
+        return game.hasAnyLegalMove(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(game.getTeamTurn());
+    }
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ParallelPerft;
+import chess.Perft;
+import chess.PerftCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs perft from the command line and reports nodes per second.
+ * <p>
+ * Usage: {@code PerftMain [--hash=MB] [position] [depth] [divide|parallel]}, e.g.
+ * {@code PerftMain --hash=256 KIWIPETE 6}. {@code parallel} splits the tree across
+ * all cores with {@link ParallelPerft}, and {@code --hash} caches subtree counts
+ * in a {@link PerftCache} of that many megabytes.
+ * Exits with status 1 if the count differs from the published one.
+ */
+public class PerftMain {
+    public static void main(String[] args) {
+        PerftCache cache = null;
+        List<String> positional = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--hash=")) {
+                cache = new PerftCache(Integer.parseInt(arg.substring("--hash=".length())));
+            } else {
+                positional.add(arg);
+            }
+        }
+        Positions position = positional.size() > 0 ? Positions.valueOf(positional.get(0).toUpperCase()) : Positions.START;
+        int depth = positional.size() > 1 ? Integer.parseInt(positional.get(1)) : 5;
+        String mode = positional.size() > 2 ? positional.get(2) : "";
+
+        ChessGame game = position.newGame();
+        Perft perft = new Perft(cache);
+        long start = System.nanoTime();
+        long nodes;
+        if (mode.equalsIgnoreCase("divide")) {
+            Map<ChessMove, Long> counts = perft.divide(game, depth);
+            counts.forEach((move, count) -> System.out.println(move + ": " + count));
+            nodes = counts.values().stream().mapToLong(Long::longValue).sum();
+        } else if (mode.equalsIgnoreCase("parallel")) {
+            nodes = new ParallelPerft(ForkJoinPool.commonPool(), 2, cache).count(game, depth);
+        } else {
+            nodes = perft.count(game, depth);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%s perft(%d) = %d in %.3f s (%.0f nodes/s)%n", position, depth, nodes,
+                elapsed / 1e9, nodes / (elapsed / 1e9));
+        long expected = position.expectedCount(depth);
+        if (expected >= 0 && expected != nodes) {
+            System.out.println("MISMATCH: expected " + expected);
+            System.exit(1);
+        }
+    }
+}
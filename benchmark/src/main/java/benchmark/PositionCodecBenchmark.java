@@ -0,0 +1,57 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.PositionCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the binary position encoding, measured as positions per second
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PositionCodecBenchmark {
+    @Param({"START", "KIWIPETE", "ENDGAME"})
+    public Positions position;
+
+    private ChessGame game;
+    private final ChessGame decoded = new ChessGame();
+    private final ByteBuffer encoded = ByteBuffer.allocate(PositionCodec.SIZE);
+    private final ByteBuffer out = ByteBuffer.allocate(PositionCodec.SIZE);
+
+    @Setup
+    public void setUp() {
+        game = position.newGame();
+        PositionCodec.encode(game, encoded);
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        out.clear();
+        PositionCodec.encode(game, out);
+        return out;
+    }
+
+    @Benchmark
+    public long decode() {
+        encoded.rewind();
+        PositionCodec.decode(encoded, decoded);
+        return decoded.getZobristKey();
+    }
+}
@@ -0,0 +1,37 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.Fen;
+
+/**
+ * Standard perft positions with their published leaf counts
+ */
+public enum Positions {
+    START(Fen.START, 20L, 400L, 8902L, 197281L, 4865609L, 119060324L, 3195901860L),
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            48L, 2039L, 97862L, 4085603L, 193690690L, 8031647685L),
+    ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            14L, 191L, 2812L, 43238L, 674624L, 11030083L, 178633661L);
+
+    private final String fen;
+    private final long[] expectedCounts;
+
+    Positions(String fen, long... expectedCounts) {
+        this.fen = fen;
+        this.expectedCounts = expectedCounts;
+    }
+
+    /**
+     * @return a new game set up at this position
+     */
+    public ChessGame newGame() {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * @return the published leaf count at the given depth, or -1 if it is not recorded here
+     */
+    public long expectedCount(int depth) {
+        return depth >= 1 && depth <= expectedCounts.length ? expectedCounts[depth - 1] : -1;
+    }
+}
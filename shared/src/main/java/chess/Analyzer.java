@@ -0,0 +1,160 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Analyzes a position on several threads at once, Lazy SMP style.
+ * <p>
+ * Every thread runs an ordinary {@link Search} of the same root, and all of
+ * them share one {@link TranspositionTable}. The helpers do no coordination
+ * beyond that: they fill the table with results the main search then finds
+ * for free, and starting every other helper one ply deeper keeps them from
+ * all searching the same nodes in lockstep. The calling thread runs the main
+ * search, and its result is the one reported. When it finishes, the helpers
+ * are stopped.
+ * <p>
+ * An Analyzer keeps its threads and table between calls, so later analyses
+ * of the same game start with a warm table. Close it to stop the helper
+ * threads. Calls to {@link #analyze} must not overlap.
+ */
+public class Analyzer implements AutoCloseable {
+    private final TranspositionTable table;
+    private final Search[] searches;
+    private final ExecutorService helpers;
+
+    /**
+     * @param threads        number of threads to search with, including the caller's
+     * @param tableMegabytes size of the shared transposition table
+     */
+    public Analyzer(int threads, int tableMegabytes) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Analyzer needs at least 1 thread: " + threads);
+        }
+        this.table = new TranspositionTable(tableMegabytes);
+        this.searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table);
+        }
+        this.helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "analyzer-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The outcome of one analysis
+     */
+    public static class Result {
+        private final ChessMove bestMove;
+        private final int score;
+        private final int depth;
+        private final long nodes;
+
+        Result(ChessMove bestMove, int score, int depth, long nodes) {
+            this.bestMove = bestMove;
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+        }
+
+        /**
+         * @return the best move found, or null if the team to move has no legal move
+         */
+        public ChessMove getBestMove() {
+            return bestMove;
+        }
+
+        /**
+         * @return score of the best move in centipawns, from the point of view
+         * of the team to move
+         */
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * @return deepest iteration the main search finished
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * @return positions visited by all threads together
+         */
+        public long getNodes() {
+            return nodes;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{" +
+                    "bestMove=" + bestMove +
+                    ", score=" + score +
+                    ", depth=" + depth +
+                    ", nodes=" + nodes +
+                    '}';
+        }
+    }
+
+    /**
+     * Analyzes a position until a time limit, or until the main search finishes a depth
+     *
+     * @param game            the position to analyze; it is not modified
+     * @param maxDepth        deepest iteration to search, in plies
+     * @param timeLimitMillis how long to search for
+     * @return the main search's best move and score
+     */
+    public Result analyze(ChessGame game, int maxDepth, long timeLimitMillis) {
+        table.newSearch();
+
+        List<Future<?>> running = new ArrayList<>(searches.length - 1);
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            ChessGame position = new ChessGame(game);
+            int firstDepth = 1 + (i & 1);
+            helper.getTimeManager().startFixed(timeLimitMillis);
+            running.add(helpers.submit(() -> helper.search(position, maxDepth, firstDepth)));
+        }
+
+        Search main = searches[0];
+        main.getTimeManager().startFixed(timeLimitMillis);
+        int move = main.search(new ChessGame(game), maxDepth, 1);
+
+        long nodes = main.getNodes();
+        for (int i = 1; i < searches.length; i++) {
+            searches[i].stop();
+        }
+        for (int i = 1; i < searches.length; i++) {
+            awaitHelper(running.get(i - 1));
+            nodes += searches[i].getNodes();
+        }
+        return new Result(move == Move.NONE ? null : Move.toChessMove(move), main.getScore(), main.getDepth(), nodes);
+    }
+
+    /**
+     * Stops the helper threads
+     */
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    private static void awaitHelper(Future<?> helper) {
+        try {
+            helper.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Analyzer helper search failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package chess;
+
+/**
+ * Constants and helpers for 64-bit board masks.
+ * <p>
+ * Square indexes run from 0 (row 1, column 1) to 63 (row 8, column 8),
+ * so bit {@code (row - 1) * 8 + (col - 1)} of a mask stands for that square.
+ * <p>
+ * Sliding piece attacks are read from magic bitboard tables: the blockers on a
+ * square's rays are multiplied by a per-square magic number whose top bits index
+ * a precomputed attack set. The magic numbers below were found offline by
+ * random search; only the attack tables are built at class load.
+ */
+public final class Bitboards {
+    private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {1, 0}, {-1, 0}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, 1}, {1, 1}, {1, -1}, {-1, -1}};
+
+    private static final long[] ROOK_MAGICS = {
+            0x9080004000108020L, 0x0140024020001000L, 0x4680081001802000L, 0x038018008150002CL,
+            0x0200100520080200L, 0x8100040008020100L, 0x0C00240108901208L, 0x8100004481000132L,
+            0x8208800080400024L, 0x0020400020100048L, 0x0A00801000200080L, 0x34F0800800801001L,
+            0x0842800800820400L, 0x0012000804020010L, 0x0002000724B20008L, 0x0082000102008044L,
+            0x800A288000400289L, 0x0100230040008500L, 0x0004820020104200L, 0x020301000C100020L,
+            0x0014008004800800L, 0x4100808004000201L, 0x44A8840002081001L, 0x8010020000A04114L,
+            0x1520401280008028L, 0x0000220200408108L, 0x8300200100401100L, 0x0110008080080010L,
+            0x2003000500080011L, 0x0002000404002010L, 0x4898010400029008L, 0x5844004200049405L,
+            0x108A8C4010800020L, 0x0010002000404002L, 0x0020010041002010L, 0x0000100080800800L,
+            0x0000080080800400L, 0x6C40406008010490L, 0x8000020001010004L, 0x4382005502000884L,
+            0x8000209040008008L, 0x01900052200A4000L, 0x0010008020008018L, 0x0040100008008080L,
+            0x2206001008060020L, 0x1204000201004040L, 0x0000100822A40001L, 0x6120005081020004L,
+            0xC880002000400A40L, 0x4001002840820200L, 0x040270A000490100L, 0x0009021003092100L,
+            0x8000680011000500L, 0x0042040080020080L, 0x0001000200040100L, 0x802E204100840200L,
+            0x0800208000110041L, 0x0080228104124001L, 0x1001000810402001L, 0x8841002006100009L,
+            0x0042000824502006L, 0x02050048120C0009L, 0x0046000804008142L, 0x0081000022085081L
+    };
+    private static final long[] BISHOP_MAGICS = {
+            0xD0F0121218020210L, 0x8210300086898082L, 0x000401040508D02AL, 0x48020A0206000001L,
+            0x0408484002424A00L, 0x0002021004A91F04L, 0x2081040260040004L, 0x0002010088114880L,
+            0x72A0042048010100L, 0x0080881001420022L, 0x0500214200820129L, 0x1100040420800A13L,
+            0x2240084840000002L, 0x04100208040400A8L, 0x4000010088A00800L, 0x001C802101282004L,
+            0x0284002044044800L, 0x11A021700200B101L, 0x4004000808001010L, 0x0010201804801000L,
+            0xA222101401200200L, 0x1006040088040200L, 0x0080400904300400L, 0x0101124243080902L,
+            0x0485200940920C00L, 0x009008000322042AL, 0x0104880040404105L, 0x0014004004010680L,
+            0x4001080481004005L, 0x8064810008090800L, 0x0006088802281500L, 0x2009002005008800L,
+            0x0601901000416410L, 0x400C420812021040L, 0x3001004802010801L, 0x4000042008240100L,
+            0x0106418020120200L, 0x0220040110408805L, 0x0088090412004224L, 0x0004008420048420L,
+            0x011401E010440800L, 0x3081010802602020L, 0x0301040201081200L, 0x0800084200800800L,
+            0x0510200140448400L, 0x0020200840800042L, 0x1004280081080419L, 0x00484B0042000190L,
+            0x0000880808041008L, 0x0444822801040280L, 0x0810210405144600L, 0x0402428084040270L,
+            0x4400000420820008L, 0x8000088208420808L, 0x0004281041520100L, 0x1028810104110500L,
+            0x0014442088084020L, 0x0102102094300840L, 0x640020814604D001L, 0xA0200A3100420204L,
+            0x0210020810202880L, 0x6064042002020A10L, 0x2010402454040860L, 0x040A209801030021L
+    };
+
+    private static final int[][] KNIGHT_STEPS = {
+            {-1, 2}, {-1, -2}, {-2, 1}, {-2, -1},
+            {1, 2}, {1, -2}, {2, 1}, {2, -1}
+    };
+    private static final int[][] KING_STEPS = {
+            {-1, 1}, {1, 1}, {1, -1}, {-1, -1},
+            {0, 1}, {1, 0}, {-1, 0}, {0, -1}
+    };
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    // Indexed by TeamColor ordinal, then square
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    // Squares strictly between two aligned squares, and the full line through them
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_ATTACKS = new long[64][];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_ATTACKS = new long[64][];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = stepAttacks(square, KNIGHT_STEPS);
+            KING_ATTACKS[square] = stepAttacks(square, KING_STEPS);
+            PAWN_ATTACKS[0][square] = stepAttacks(square, new int[][]{{1, 1}, {1, -1}});
+            PAWN_ATTACKS[1][square] = stepAttacks(square, new int[][]{{-1, 1}, {-1, -1}});
+            initMagic(square, ROOK_DIRECTIONS, ROOK_MAGICS[square], ROOK_MASKS, ROOK_SHIFTS, ROOK_ATTACKS);
+            initMagic(square, BISHOP_DIRECTIONS, BISHOP_MAGICS[square], BISHOP_MASKS, BISHOP_SHIFTS, BISHOP_ATTACKS);
+        }
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                if (a == b) {
+                    continue;
+                }
+                if ((rookAttacks(a, 0) & bit(b)) != 0) {
+                    BETWEEN[a][b] = rookAttacks(a, bit(b)) & rookAttacks(b, bit(a));
+                    LINE[a][b] = (rookAttacks(a, 0) & rookAttacks(b, 0)) | bit(a) | bit(b);
+                } else if ((bishopAttacks(a, 0) & bit(b)) != 0) {
+                    BETWEEN[a][b] = bishopAttacks(a, bit(b)) & bishopAttacks(b, bit(a));
+                    LINE[a][b] = (bishopAttacks(a, 0) & bishopAttacks(b, 0)) | bit(a) | bit(b);
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    /**
+     * @return the square index for a 1-based row and column
+     */
+    public static int square(int row, int col) {
+        return ((row - 1) << 3) | (col - 1);
+    }
+
+    /**
+     * @return the square index of a position
+     */
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the 1-based row of a square index
+     */
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the 1-based column of a square index
+     */
+    public static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    /**
+     * @return a mask with only the given square set
+     */
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * @return the squares strictly between two squares on a shared row, column or
+     * diagonal, or 0 if they are not aligned
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * @return every square on the row, column or diagonal through both squares,
+     * edge to edge, or 0 if they are not aligned
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    /**
+     * @return every square a knight on the given square attacks
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * @return every square a king on the given square attacks
+     */
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given team on the given square captures on
+     */
+    public static long pawnAttacks(ChessGame.TeamColor team, int square) {
+        return PAWN_ATTACKS[team.ordinal()][square];
+    }
+
+    /**
+     * @return every square a rook on the given square attacks, stopping at
+     * (and including) the first occupied square in each direction
+     */
+    public static long rookAttacks(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_ATTACKS[square][index];
+    }
+
+    /**
+     * @return every square a bishop on the given square attacks, stopping at
+     * (and including) the first occupied square in each direction
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_ATTACKS[square][index];
+    }
+
+    /**
+     * @return every square a queen on the given square attacks
+     */
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    private static void initMagic(int square, int[][] directions, long magic, long[] masks, int[] shifts,
+                                  long[][] tables) {
+        long mask = relevantBlockers(square, directions);
+        int bits = Long.bitCount(mask);
+        long[] table = new long[1 << bits];
+
+        // Walk every blocker subset of the mask (Carry-Rippler) and store its attack set
+        long blockers = 0;
+        do {
+            int index = (int) ((blockers * magic) >>> (64 - bits));
+            long attacks = rayAttacks(square, blockers, directions);
+            if (table[index] != 0 && table[index] != attacks) {
+                throw new IllegalStateException("Magic collision on square " + square);
+            }
+            table[index] = attacks;
+            blockers = (blockers - mask) & mask;
+        } while (blockers != 0);
+
+        masks[square] = mask;
+        shifts[square] = 64 - bits;
+        tables[square] = table;
+    }
+
+    // Squares whose occupancy can change the attack set: each ray minus its edge square
+    private static long relevantBlockers(int square, int[][] directions) {
+        long mask = 0;
+        for (int[] direction : directions) {
+            int row = row(square) + direction[0];
+            int col = column(square) + direction[1];
+            while (onBoard(row + direction[0], col + direction[1])) {
+                mask |= bit(square(row, col));
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long stepAttacks(int square, int[][] steps) {
+        long attacks = 0;
+        for (int[] step : steps) {
+            int row = row(square) + step[0];
+            int col = column(square) + step[1];
+            if (onBoard(row, col)) {
+                attacks |= bit(square(row, col));
+            }
+        }
+        return attacks;
+    }
+
+    private static long rayAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0;
+        for (int[] direction : directions) {
+            int row = row(square) + direction[0];
+            int col = column(square) + direction[1];
+            while (onBoard(row, col)) {
+                long bit = bit(square(row, col));
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean onBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+}
@@ -1,7 +1,6 @@
 package chess;
 
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
@@ -11,9 +10,41 @@ import java.util.Objects;
  */
 public class ChessBoard {
     private final ChessPiece[][] squares = new ChessPiece[9][9];
+    // Bitboard mirror of squares, kept in sync by addPiece
+    private final long[] pieceBitboards = new long[12];
+    private final long[] teamBitboards = new long[2];
+    private long occupied;
+    // Square index of each team's king, or -1 when it has none
+    private final int[] kingSquares = {-1, -1};
+    // Zobrist key of the pieces on the board, see Zobrist
+    private long zobristKey;
+    // Evaluation totals, white minus black, and game phase, see Evaluation
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
 
     public ChessBoard() {
     }
+
+    /**
+     * Creates an independent copy of another board
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        for (int row = 1; row <= 8; row++) {
+            System.arraycopy(other.squares[row], 1, squares[row], 1, 8);
+        }
+        System.arraycopy(other.pieceBitboards, 0, pieceBitboards, 0, pieceBitboards.length);
+        System.arraycopy(other.teamBitboards, 0, teamBitboards, 0, teamBitboards.length);
+        occupied = other.occupied;
+        kingSquares[0] = other.kingSquares[0];
+        kingSquares[1] = other.kingSquares[1];
+        zobristKey = other.zobristKey;
+        middlegameScore = other.middlegameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
+    }
     
 
     /**
@@ -23,7 +54,110 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow()][position.getColumn()] = piece;
+        addPiece(Bitboards.square(position), piece);
+    }
+
+    /**
+     * Adds a chess piece to the chessboard by square index
+     *
+     * @param square square index, see {@link Bitboards}
+     * @param piece  the piece to add, or null to empty the square
+     */
+    public void addPiece(int square, ChessPiece piece) {
+        int row = Bitboards.row(square);
+        int col = Bitboards.column(square);
+        long bit = Bitboards.bit(square);
+
+        ChessPiece old = squares[row][col];
+        if (old != null) {
+            int team = old.getTeamColor().ordinal();
+            pieceBitboards[old.index()] &= ~bit;
+            teamBitboards[team] &= ~bit;
+            occupied &= ~bit;
+            zobristKey ^= Zobrist.piece(old, square);
+            middlegameScore -= Evaluation.middlegame(old, square);
+            endgameScore -= Evaluation.endgame(old, square);
+            phase -= Evaluation.phase(old);
+            if (kingSquares[team] == square) {
+                // Fall back to any other king of that team a test board may hold
+                long kings = pieceBitboards[team * 6 + ChessPiece.PieceType.KING.ordinal()];
+                kingSquares[team] = kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+            }
+        }
+
+        squares[row][col] = piece;
+        if (piece != null) {
+            int team = piece.getTeamColor().ordinal();
+            pieceBitboards[piece.index()] |= bit;
+            teamBitboards[team] |= bit;
+            occupied |= bit;
+            zobristKey ^= Zobrist.piece(piece, square);
+            middlegameScore += Evaluation.middlegame(piece, square);
+            endgameScore += Evaluation.endgame(piece, square);
+            phase += Evaluation.phase(piece);
+            if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+                kingSquares[team] = square;
+            }
+        }
+    }
+
+    /**
+     * Puts a piece on an empty square while a whole position is being set up,
+     * writing only the square and the piece's bitboard. Everything derived
+     * from them is left stale until {@link #completeSetUp()}, which is much
+     * cheaper than updating it piece by piece as {@link #addPiece} does.
+     *
+     * @param square square index, see {@link Bitboards}
+     * @param piece  the piece to put there
+     */
+    void setUpPiece(int square, ChessPiece piece) {
+        squares[Bitboards.row(square)][Bitboards.column(square)] = piece;
+        pieceBitboards[piece.index()] |= Bitboards.bit(square);
+    }
+
+    /**
+     * Rebuilds the team bitboards, occupancy, king squares, Zobrist key and
+     * evaluation totals from the piece bitboards, after a run of
+     * {@link #setUpPiece} calls on a cleared board
+     */
+    void completeSetUp() {
+        // Sum into locals and store once at the end
+        long white = 0L;
+        long black = 0L;
+        long key = 0L;
+        int middlegame = 0;
+        int endgame = 0;
+        int totalPhase = 0;
+        for (int index = 0; index < pieceBitboards.length; index++) {
+            long bits = pieceBitboards[index];
+            if (bits == 0) {
+                continue;
+            }
+            ChessPiece piece = ChessPiece.of(index);
+            if (index < 6) {
+                white |= bits;
+            } else {
+                black |= bits;
+            }
+            totalPhase += Evaluation.phase(piece) * Long.bitCount(bits);
+            for (; bits != 0; bits &= bits - 1) {
+                int square = Long.numberOfTrailingZeros(bits);
+                key ^= Zobrist.piece(piece, square);
+                middlegame += Evaluation.middlegame(piece, square);
+                endgame += Evaluation.endgame(piece, square);
+            }
+        }
+        teamBitboards[0] = white;
+        teamBitboards[1] = black;
+        occupied = white | black;
+        zobristKey = key;
+        middlegameScore = middlegame;
+        endgameScore = endgame;
+        phase = totalPhase;
+        for (int team = 0; team < 2; team++) {
+            long kings = pieceBitboards[team * 6 + ChessPiece.PieceType.KING.ordinal()];
+            kingSquares[team] = kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+        }
     }
 
     /**
@@ -38,23 +172,135 @@ public class ChessBoard {
     }
 
     /**
-     * Sets the board to the default starting board
-     * (How the game of chess normally starts)
+     * Gets a chess piece by square index
+     *
+     * @param square square index, see {@link Bitboards}
+     * @return Either the piece on the square, or null if it is empty
      */
-    public void resetBoard() {
-        // Initial setup
+    public ChessPiece getPiece(int square) {
+        return squares[Bitboards.row(square)][Bitboards.column(square)];
+    }
+
+    /**
+     * @return mask of every square holding the given team's pieces of the given type
+     */
+    public long getBitboard(ChessGame.TeamColor team, ChessPiece.PieceType type) {
+        return pieceBitboards[team.ordinal() * 6 + type.ordinal()];
+    }
+
+    /**
+     * @return mask of every square holding one of the given team's pieces
+     */
+    public long getTeamBitboard(ChessGame.TeamColor team) {
+        return teamBitboards[team.ordinal()];
+    }
+
+    /**
+     * @return mask of every occupied square
+     */
+    public long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * @return the Zobrist key of the pieces on the board, updated as pieces are added
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * @return white's material and square bonuses minus black's, middlegame
+     * tables, updated as pieces are added
+     */
+    public int getMiddlegameScore() {
+        return middlegameScore;
+    }
+
+    /**
+     * @return white's material and square bonuses minus black's, endgame
+     * tables, updated as pieces are added
+     */
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * @return how much non-pawn material is left, from 0 up to
+     * {@link Evaluation#MAX_PHASE} for a full set
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return the square index of the team's king, or -1 if it has no king on the board
+     */
+    public int getKingSquare(ChessGame.TeamColor team) {
+        return kingSquares[team.ordinal()];
+    }
+
+    /**
+     * Determines if any of the attacking team's pieces could capture on a square.
+     * Probes outward from the square: pawn, knight and king patterns, then the
+     * diagonal and straight rays up to the first blocker.
+     *
+     * @param square   square index to test
+     * @param attacker team whose pieces may attack the square
+     * @return True if the square is attacked
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor attacker) {
+        return attackersTo(square, attacker, occupied) != 0;
+    }
+
+    /**
+     * @return mask of the attacking team's pieces that attack a square, given an occupancy
+     */
+    public long attackersTo(int square, ChessGame.TeamColor attacker, long occupancy) {
+        ChessGame.TeamColor defender = ChessGame.opponent(attacker);
+        long queens = getBitboard(attacker, ChessPiece.PieceType.QUEEN);
+        return (Bitboards.pawnAttacks(defender, square) & getBitboard(attacker, ChessPiece.PieceType.PAWN))
+                | (Bitboards.knightAttacks(square) & getBitboard(attacker, ChessPiece.PieceType.KNIGHT))
+                | (Bitboards.kingAttacks(square) & getBitboard(attacker, ChessPiece.PieceType.KING))
+                | (Bitboards.bishopAttacks(square, occupancy)
+                        & (getBitboard(attacker, ChessPiece.PieceType.BISHOP) | queens))
+                | (Bitboards.rookAttacks(square, occupancy)
+                        & (getBitboard(attacker, ChessPiece.PieceType.ROOK) | queens));
+    }
+
+    /**
+     * Removes every piece from the board
+     */
+    public void clear() {
         for (int row = 1; row <= 8; row++) {
             for (int col = 1; col <= 8; col++) {
                 squares[row][col] = null;
             }
         }
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(teamBitboards, 0L);
+        occupied = 0L;
+        Arrays.fill(kingSquares, -1);
+        zobristKey = 0L;
+        middlegameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+    }
+
+    /**
+     * Sets the board to the default starting board
+     * (How the game of chess normally starts)
+     */
+    public void resetBoard() {
+        // Initial setup
+        clear();
 
         // Pawns
         for (int col = 1; col <= 8; col++) {
-            addPiece(new ChessPosition(2, col),
-                    new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-            addPiece(new ChessPosition(7, col),
-                    new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2, col),
+                    ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, col),
+                    ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
 
         // Special pieces
@@ -65,8 +311,8 @@ public class ChessBoard {
                 ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK
         };
         for (int col = 1; col <= 8; col++) {
-            addPiece(new ChessPosition(1, col), new ChessPiece(ChessGame.TeamColor.WHITE, backRows[col-1]));
-            addPiece(new ChessPosition(8, col), new ChessPiece(ChessGame.TeamColor.BLACK, backRows[col-1]));
+            addPiece(ChessPosition.of(1, col), ChessPiece.of(ChessGame.TeamColor.WHITE, backRows[col-1]));
+            addPiece(ChessPosition.of(8, col), ChessPiece.of(ChessGame.TeamColor.BLACK, backRows[col-1]));
         }
     }
 
@@ -76,12 +322,12 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        return Arrays.equals(pieceBitboards, that.pieceBitboards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(zobristKey);
     }
 
     @Override
@@ -1,8 +1,7 @@
 package chess;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.List;
 import java.util.Objects;
 
 /**
@@ -18,15 +17,45 @@ public class ChessGame {
     private ChessBoard board;
     private ChessPiece currentPiece;
 
-    // For castling
-    private boolean whitKingMoved = false;
-    private boolean blackKingMoved = false;
-    private boolean whiteLeftRookMoved = false;
-    private boolean whiteRightRookMoved = false;
-    private boolean blackLeftRookMoved = false;
-    private boolean blackRightRookMoved = false;
-    // En Passant
-    private ChessPosition enPassantVulnerablePawn = null;
+    // For castling, one bit per side that may still castle
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    // Rights that survive a move touching each square: moving a king or rook,
+    // or capturing a rook, on its home square gives up castling on that side
+    private static final int[] CASTLING_MASKS = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASKS, WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASKS[Bitboards.square(1, 1)] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASKS[Bitboards.square(1, 8)] &= ~WHITE_KINGSIDE;
+        CASTLING_MASKS[Bitboards.square(1, 5)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASKS[Bitboards.square(8, 1)] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASKS[Bitboards.square(8, 8)] &= ~BLACK_KINGSIDE;
+        CASTLING_MASKS[Bitboards.square(8, 5)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+    }
+
+    private int castlingRights = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+    // En Passant: square of the pawn that just moved two rows, or -1
+    private int enPassantVulnerablePawn = -1;
+    // Moves since the last capture or pawn move, and the number of the move
+    // being played, counting from 1 and going up after each black move
+    private int halfmoveClock = 0;
+    private int fullmoveNumber = 1;
+
+    // Undo stack, one entry per move made: the packed Move with its flags, the
+    // state word castlingRights | (enPassantVulnerablePawn + 1) << 4
+    // | halfmoveClock << 11, and the moved and captured pieces. Engine scratch
+    // state is transient so it never ends up in the game's JSON.
+    private transient int[] undoMoves = new int[64];
+    private transient int[] undoStates = new int[64];
+    private transient ChessPiece[] undoMovedPieces = new ChessPiece[64];
+    private transient ChessPiece[] undoCapturedPieces = new ChessPiece[64];
+    private transient int ply = 0;
+    private final transient MoveList scratchMoves = new MoveList();
+    // Last snapshot taken, handed out again until the position changes
+    private transient GameSnapshot snapshot;
 
 
     public ChessGame() {
@@ -35,6 +64,29 @@ public class ChessGame {
         this.color = TeamColor.WHITE;
     }
 
+    /**
+     * Creates a game in the same position as another, on its own copy of the
+     * board. Moves made before the copy cannot be taken back on it.
+     *
+     * @param other the game to copy
+     */
+    public ChessGame(ChessGame other) {
+        this.board = new ChessBoard(other.board);
+        this.color = other.color;
+        this.currentPiece = other.currentPiece;
+        this.castlingRights = other.castlingRights;
+        this.enPassantVulnerablePawn = other.enPassantVulnerablePawn;
+        this.halfmoveClock = other.halfmoveClock;
+        this.fullmoveNumber = other.fullmoveNumber;
+    }
+
+    ChessGame(ChessBoard board, TeamColor color, int castlingRights, int enPassantVulnerablePawn) {
+        this.board = board;
+        this.color = color;
+        this.castlingRights = castlingRights;
+        this.enPassantVulnerablePawn = enPassantVulnerablePawn;
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -75,109 +127,106 @@ public class ChessGame {
     }
 
     /**
-     * Enum identifying the 2 possible teams in a chess game
+     * Gets the Zobrist key of the whole position: the board's incrementally
+     * maintained piece key combined with the side to move, castling rights and
+     * en passant file. The en passant file only counts when the capture can
+     * actually be made, so a double push no pawn can take doesn't split one
+     * position into two. Equal positions always have equal keys, so the key
+     * identifies a position in constant time for caching and repetition checks.
+     *
+     * @return the position's 64-bit key
      */
-    public enum TeamColor {
-        WHITE,
-        BLACK
-    }
-
-    private boolean isCastlingMove(ChessPiece piece, ChessPosition start, ChessPosition end) {
-        if (piece.getPieceType() != ChessPiece.PieceType.KING) return false;
-
-        int row = start.getRow();
-        int colDiff = end.getColumn() - start.getColumn();
-
-        return row == end.getRow() && (colDiff == 2 || colDiff == -2);
+    public long getZobristKey() {
+        long key = board.getZobristKey() ^ Zobrist.castling(castlingRights);
+        if (color == TeamColor.BLACK) {
+            key ^= Zobrist.blackToMove();
+        }
+        int enPassantPawn = capturableEnPassantPawn();
+        if (enPassantPawn >= 0) {
+            key ^= Zobrist.enPassant(enPassantPawn);
+        }
+        return key;
     }
 
-    private boolean canCastleLegally(ChessPosition start, ChessPosition end) {
-        int row = start.getRow();
-        int startCol = start.getColumn();
-        int endCol = end.getColumn();
-        boolean kingSide = endCol > startCol;
-
-        // Team
-        TeamColor team = board.getPiece(start).getTeamColor();
-
-        // Has king or rook moved
-        if (team == TeamColor.WHITE) {
-            if (whitKingMoved) return false;
-            if (kingSide && whiteRightRookMoved) return false;
-            if (!kingSide && whiteLeftRookMoved) return false;
-        } else {
-            if (blackKingMoved) return false;
-            if (kingSide && blackRightRookMoved) return false;
-            if (!kingSide && blackLeftRookMoved) return false;
+    /**
+     * @return square of the pawn that may be captured en passant, or -1 if
+     * there is none or no pawn of the team to move can legally take it
+     */
+    int capturableEnPassantPawn() {
+        if (enPassantVulnerablePawn < 0) {
+            return -1;
         }
-
-        // Are intermediate squares empty
-        int[] betweenCols = kingSide ? new int[]{6, 7} : new int[]{2, 3, 4};
-        for (int col : betweenCols) {
-            if (board.getPiece(new ChessPosition(row, col)) != null) {
-                return  false;
+        int target = enPassantVulnerablePawn + (color == TeamColor.WHITE ? 8 : -8);
+        long capturers = Bitboards.pawnAttacks(opponent(color), target)
+                & board.getBitboard(color, ChessPiece.PieceType.PAWN);
+        for (; capturers != 0; capturers &= capturers - 1) {
+            int capture = Move.encode(Long.numberOfTrailingZeros(capturers), target, null,
+                    Move.CAPTURE | Move.EN_PASSANT);
+            if (MoveGenerator.isLegal(board, color, castlingRights, enPassantVulnerablePawn, capture)) {
+                return enPassantVulnerablePawn;
             }
         }
+        return -1;
+    }
 
-        // Is king in check
-        for (int col : kingSide ? new int[]{5, 6, 7} : new int[]{5, 4, 3}) {
-            ChessPiece king = new ChessPiece(team, ChessPiece.PieceType.KING);
-            ChessPosition testPosition = new ChessPosition(row, col);
-
-            ChessPiece temp = board.getPiece(testPosition);
-            board.addPiece(start, null);
-            board.addPiece(testPosition, king);
-
-            boolean inCheck = isInCheck(team);
-
-            board.addPiece(testPosition, temp);
-            board.addPiece(start, king);
+    /**
+     * Replaces everything but the board's pieces, which the caller has already
+     * placed, and forgets the moves made so far
+     */
+    void setPosition(TeamColor color, int castlingRights, int enPassantVulnerablePawn, int halfmoveClock,
+                     int fullmoveNumber) {
+        this.color = color;
+        this.castlingRights = castlingRights;
+        this.enPassantVulnerablePawn = enPassantVulnerablePawn;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        setBoard(board);
+    }
 
-            if (inCheck) return false;
+    /**
+     * Takes an immutable copy of the current position that other threads can
+     * read without locking while this game carries on. Snapshots are reused
+     * until the position changes, so taking one after every move copies the
+     * board once per move at most.
+     *
+     * @return a snapshot of the current position
+     */
+    public GameSnapshot snapshot() {
+        long key = getZobristKey();
+        if (snapshot == null || snapshot.getZobristKey() != key) {
+            snapshot = new GameSnapshot(board, color, castlingRights, capturableEnPassantPawn(), key);
         }
-
-        return true;
+        return snapshot;
     }
 
+    /**
+     * @return castling rights bitmask of {@link #WHITE_KINGSIDE} and friends
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
 
+    /**
+     * @return moves made since the last capture or pawn move, for the fifty-move rule
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
 
-    private void castling(TeamColor team, ChessPosition kingStart, ChessPosition kingEnd) {
-        int row = kingStart.getRow();
-        int startCol = kingStart.getColumn();
-        int endCol = kingEnd.getColumn();
-        boolean kingSide = endCol > startCol;
-
-        // Move the king
-        ChessPiece king = board.getPiece(kingStart);
-        board.addPiece(kingStart, null);
-        board.addPiece(kingEnd, king);
-
-        // Move the rook
-        ChessPosition rookStart = kingSide ? new ChessPosition(row, 8) : new ChessPosition(row, 1);
-        ChessPosition rookEnd = kingSide ? new ChessPosition(row, endCol - 1) : new ChessPosition(row, endCol + 1);
-
-        ChessPiece rook = board.getPiece(rookStart);
-        board.addPiece(rookStart, null);
-        board.addPiece(rookEnd, rook);
-
-        // Update
-        if (team == TeamColor.WHITE) {
-            whitKingMoved = true;
-            if (kingSide) {
-                whiteRightRookMoved = true;
-            } else {
-                whiteLeftRookMoved = true;
-            }
-        } else {
-            blackKingMoved = true;
-            if (kingSide) {
-                blackRightRookMoved = true;
-            } else {
-                blackLeftRookMoved = true;
-            }
-        }
+    /**
+     * @return number of the move being played, starting at 1 and going up after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
     }
 
+    /**
+     * Enum identifying the 2 possible teams in a chess game
+     */
+    public enum TeamColor {
+        WHITE,
+        BLACK
+    }
 
     /**
      * Gets a valid moves for a piece at the given location
@@ -186,91 +235,44 @@ public class ChessGame {
      * @return Set of valid moves for requested piece, or null if no piece at
      * startPosition
      */
-
-
-
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
         ChessPiece piece = board.getPiece(startPosition);
         if (piece == null) {
             return null;
         }
-        List<ChessMove> pieceMoves = (List<ChessMove>) piece.pieceMoves(board, startPosition);
-        List<ChessMove> validPieceMoves = new ArrayList<>();
-
-        for (ChessMove move : pieceMoves) {
-            ChessPosition endPosition = move.getEndPosition();
-
-            // save captured pieces
-            ChessPiece capturedPiece = board.getPiece(endPosition);
-
-            //casting check
-            boolean isCastlingMove = isCastlingMove(piece, startPosition, endPosition);
-
-            if (isCastlingMove) {
-                if (canCastleLegally(startPosition, endPosition)) {
-                    validPieceMoves.add(move);
-                }
-                continue;
-            }
-
-            // Reg move check
-            board.addPiece(endPosition, piece);
-            board.addPiece(startPosition, null);
-
-            if (!isInCheck(piece.getTeamColor())) {
-                validPieceMoves.add(move);
-            }
+        MoveList moves = scratchMoves;
+        generateValidMoves(piece.getTeamColor(), Bitboards.bit(Bitboards.square(startPosition)), moves);
+        return moves.toChessMoves();
+    }
 
-            // En passant
-            if (piece.getPieceType() == ChessPiece.PieceType.PAWN && enPassantVulnerablePawn != null) {
-                int startRow = startPosition.getRow();
-                int startCol = startPosition.getColumn();
-                int targetRow = enPassantVulnerablePawn.getRow();
-                int targetCol = enPassantVulnerablePawn.getColumn();
-
-                // see if en passant pawn is adjacent in column
-                if (Math.abs(startCol - targetCol) == 1) {
-                    // Pawn must be on rank 5 capturing down
-                    if (piece.getTeamColor() == TeamColor.WHITE && startRow == 5 && targetRow == 5) {
-                        ChessPosition endPos = new ChessPosition(6, targetCol); // capture des
-                        // simulate move
-                        ChessPiece captured = board.getPiece(enPassantVulnerablePawn);
-                        board.addPiece(startPosition, null);
-                        board.addPiece(endPos, piece);
-                        board.addPiece(enPassantVulnerablePawn, null); // dead captured pawn
-                        if (!isInCheck(piece.getTeamColor())) {
-                            validPieceMoves.add(new ChessMove(startPosition, endPos, null));
-                        }
-                        // reset board
-                        board.addPiece(startPosition, piece);
-                        board.addPiece(enPassantVulnerablePawn, captured);
-                        board.addPiece(endPos, null);
-                    }
-                    // black pawn must be rank 4 going up
-                    else if (piece.getTeamColor() == TeamColor.BLACK && startRow == 4 && targetRow == 4) {
-                        ChessPosition endPos = new ChessPosition(3, targetCol); // capture des
-                        // simulate move
-                        ChessPiece captured = board.getPiece(enPassantVulnerablePawn);
-                        board.addPiece(startPosition, null);
-                        board.addPiece(endPos, piece);
-                        board.addPiece(enPassantVulnerablePawn, null); // dead captured pawn
-                        if (!isInCheck(piece.getTeamColor())) {
-                            validPieceMoves.add(new ChessMove(startPosition, endPos, null));
-                        }
-                        // reset board
-                        board.addPiece(startPosition, piece);
-                        board.addPiece(enPassantVulnerablePawn, captured);
-                        board.addPiece(endPos, null);
-                    }
-                }
-            }
+    /**
+     * Gets every legal move for a team, whether or not it is that team's turn
+     *
+     * @param team the team to get moves for
+     * @return all legal moves of the team's pieces
+     */
+    public Collection<ChessMove> legalMoves(TeamColor team) {
+        MoveList moves = scratchMoves;
+        generateLegalMoves(team, moves);
+        return moves.toChessMoves();
+    }
 
-            // reset the board
-            board.addPiece(startPosition, piece);
-            board.addPiece(endPosition, capturedPiece);
-        }
+    /**
+     * Replaces the contents of a move buffer with every legal move for a team.
+     * Moves are generated in a single pass using pins and check masks, without
+     * trying each one on the board.
+     *
+     * @param team  the team to get moves for
+     * @param moves buffer to fill with packed moves
+     */
+    public void generateLegalMoves(TeamColor team, MoveList moves) {
+        generateValidMoves(team, -1L, moves);
+    }
 
-        return validPieceMoves;
+    // Clears moves and fills it with the legal moves of the team's pieces on fromMask
+    private void generateValidMoves(TeamColor team, long fromMask, MoveList moves) {
+        moves.clear();
+        MoveGenerator.generateLegal(board, team, castlingRights, enPassantVulnerablePawn, fromMask, moves);
     }
 
     /**
@@ -281,7 +283,6 @@ public class ChessGame {
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
         ChessPosition startPosition = move.getStartPosition();
-        ChessPosition endPosition = move.getEndPosition();
         ChessPiece movingPiece = board.getPiece(startPosition);
 
         if (movingPiece == null) {
@@ -292,91 +293,151 @@ public class ChessGame {
             throw new InvalidMoveException("Wrong team's turn");
         }
 
-        // Handle castling
-        boolean isCastlingMove = isCastlingMove(movingPiece, startPosition, endPosition);
-        if (isCastlingMove) {
-            castling(movingPiece.getTeamColor(), startPosition, endPosition);
-            color = (color == TeamColor.BLACK) ? TeamColor.WHITE : TeamColor.BLACK;
-            return;
+        if (!isLegal(move)) {
+            throw new InvalidMoveException("Invalid move");
         }
 
+        makeMove(Move.encode(move));
+    }
 
-        if (isInCheck(getTeamTurn())) {
-            throw new InvalidMoveException("Checked");
-        }
-
-        if (movingPiece == null || movingPiece.getTeamColor() != color) {
-            throw new InvalidMoveException("Invalid move");
+    /**
+     * Determines if a move is legal for the team of the piece making it, whether
+     * or not it is that team's turn. Only the given move is checked: nothing is
+     * generated and the board is left untouched.
+     *
+     * @param move the move to check
+     * @return True if the move follows the piece's rules and leaves its king safe
+     */
+    public boolean isLegal(ChessMove move) {
+        ChessPiece piece = board.getPiece(move.getStartPosition());
+        if (piece == null) {
+            return false;
         }
+        return MoveGenerator.isLegal(board, piece.getTeamColor(), castlingRights, enPassantVulnerablePawn,
+                Move.encode(move));
+    }
 
-        Collection<ChessMove> validMoves = validMoves(startPosition);
-        if (validMoves == null) {
-            throw new InvalidMoveException("Valid moves is null");
+    /**
+     * Makes a packed move without checking that it is legal. This is the
+     * allocation-free path for engine code that generated the move itself;
+     * castling and en passant are recognised from the board, so flags are optional.
+     *
+     * @param move packed move, see {@link Move}
+     */
+    public void makeMove(int move) {
+        int start = Move.start(move);
+        int end = Move.end(move);
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        ChessPiece movingPiece = board.getPiece(start);
+        ChessPiece captured = board.getPiece(end);
+        ChessPiece.PieceType type = movingPiece.getPieceType();
+        int flags = captured != null ? Move.CAPTURE : 0;
+
+        if (ply == undoMoves.length) {
+            int capacity = ply * 2;
+            undoMoves = Arrays.copyOf(undoMoves, capacity);
+            undoStates = Arrays.copyOf(undoStates, capacity);
+            undoMovedPieces = Arrays.copyOf(undoMovedPieces, capacity);
+            undoCapturedPieces = Arrays.copyOf(undoCapturedPieces, capacity);
         }
-        if (!validMoves.contains(move)) {
-            throw new InvalidMoveException("Invalid move");
+        undoStates[ply] = castlingRights | (enPassantVulnerablePawn + 1) << 4 | halfmoveClock << 11;
+
+        if (type == ChessPiece.PieceType.KING && Math.abs(end - start) == 2) {
+            // Castling: the rook jumps to the square the king passed over
+            flags = Move.CASTLING;
+            boolean kingSide = end > start;
+            int rookStart = kingSide ? start + 3 : start - 4;
+            int rookEnd = kingSide ? end - 1 : end + 1;
+            board.addPiece(rookEnd, board.getPiece(rookStart));
+            board.addPiece(rookStart, null);
+        } else if (type == ChessPiece.PieceType.PAWN && captured == null && (start & 7) != (end & 7)) {
+            // En passant: a diagonal pawn move onto an empty square takes the pawn beside it
+            flags = Move.EN_PASSANT;
+            int capturedSquare = (start & ~7) | (end & 7);
+            captured = board.getPiece(capturedSquare);
+            board.addPiece(capturedSquare, null);
         }
 
-        // movement logic
+        undoMoves[ply] = Move.encode(start, end, promotion, flags);
+        undoMovedPieces[ply] = movingPiece;
+        undoCapturedPieces[ply] = captured;
+        ply++;
 
+        // move to new position, promoting if asked
+        board.addPiece(start, null);
+        board.addPiece(end, promotion != null && type == ChessPiece.PieceType.PAWN
+                ? ChessPiece.of(movingPiece.getTeamColor(), promotion) : movingPiece);
 
-        // En passant capture
-        if (movingPiece.getPieceType() == ChessPiece.PieceType.PAWN &&
-                endPosition.getColumn() != startPosition.getColumn() &&
-                board.getPiece(endPosition) == null) {
-            // Weird capture here
-            int capturedPawnRow = (color == TeamColor.WHITE) ? endPosition.getRow() - 1 : endPosition.getRow() + 1;
-            ChessPosition capturedPawnPos = new ChessPosition(capturedPawnRow, endPosition.getColumn());
-            board.addPiece(capturedPawnPos, null); // pawn dies
+        castlingRights &= CASTLING_MASKS[start] & CASTLING_MASKS[end];
+        halfmoveClock = type == ChessPiece.PieceType.PAWN || captured != null ? 0 : halfmoveClock + 1;
+        if (color == TeamColor.BLACK) {
+            fullmoveNumber++;
         }
 
-        // move to new position
-        board.addPiece(endPosition, movingPiece);
-        // delete old piece
-        board.addPiece(startPosition, null);
-
-
-        // Pawn promotion
-        if (move.getPromotionPiece() != null && movingPiece.getPieceType() == ChessPiece.PieceType.PAWN) {
-            movingPiece = new ChessPiece(color, move.getPromotionPiece());
-            board.addPiece(endPosition, movingPiece);
+        // Track En Passant
+        if (type == ChessPiece.PieceType.PAWN && Math.abs(end - start) == 16) {
+            enPassantVulnerablePawn = end;
+        } else {
+            enPassantVulnerablePawn = -1;
         }
 
+        // switch to other team
+        color = opponent(color);
+    }
 
-        // update moved flags for king or rook
-        if (movingPiece.getPieceType() == ChessPiece.PieceType.KING) {
-            if (color == TeamColor.WHITE) whitKingMoved = true;
-            else blackKingMoved = true;
-        } else if (movingPiece.getPieceType() == ChessPiece.PieceType.ROOK) {
-            int row = startPosition.getRow();
-            int col = startPosition.getColumn();
-            if (color == TeamColor.WHITE) {
-                if (row == 1 && col == 1) whiteLeftRookMoved = true;
-                else if (row == 1 && col == 8) whiteRightRookMoved = true;
-            } else {
-                if (row == 8 && col == 1) blackLeftRookMoved = true;
-                else if (row == 8 && col == 8) blackRightRookMoved = true;
-            }
+    /**
+     * Takes back the most recent move, restoring the board, castling rights,
+     * en passant state, clocks and team turn exactly as they were before it
+     *
+     * @throws IllegalStateException if no move has been made since the board was set
+     */
+    public void unmakeMove() {
+        if (ply == 0) {
+            throw new IllegalStateException("No move to unmake");
         }
-
-
-        // Track En Passant
-        if (movingPiece.getPieceType() == ChessPiece.PieceType.PAWN &&
-                Math.abs(endPosition.getRow() - startPosition.getRow()) == 2) {
-            enPassantVulnerablePawn = endPosition;
+        ply--;
+        int move = undoMoves[ply];
+        int start = Move.start(move);
+        int end = Move.end(move);
+        int flags = Move.flags(move);
+        ChessPiece movingPiece = undoMovedPieces[ply];
+        ChessPiece captured = undoCapturedPieces[ply];
+        undoMovedPieces[ply] = null;
+        undoCapturedPieces[ply] = null;
+
+        board.addPiece(end, null);
+        board.addPiece(start, movingPiece);
+        if ((flags & Move.CASTLING) != 0) {
+            boolean kingSide = end > start;
+            int rookStart = kingSide ? start + 3 : start - 4;
+            int rookEnd = kingSide ? end - 1 : end + 1;
+            board.addPiece(rookStart, board.getPiece(rookEnd));
+            board.addPiece(rookEnd, null);
+        } else if ((flags & Move.EN_PASSANT) != 0) {
+            // The captured pawn sat beside the starting square
+            board.addPiece((start & ~7) | (end & 7), captured);
         } else {
-            enPassantVulnerablePawn = null;
+            board.addPiece(end, captured);
         }
 
-        // switch to other team
-        color = (color == TeamColor.BLACK) ? TeamColor.WHITE : TeamColor.BLACK;
+        int state = undoStates[ply];
+        castlingRights = state & 15;
+        enPassantVulnerablePawn = (state >>> 4 & 127) - 1;
+        halfmoveClock = state >>> 11;
+        color = opponent(color);
+        if (color == TeamColor.BLACK) {
+            fullmoveNumber--;
+        }
     }
 
     public void setEnPassantVulnerablePawn(ChessPosition pos) {
-        this.enPassantVulnerablePawn = pos;
+        this.enPassantVulnerablePawn = pos == null ? -1 : Bitboards.square(pos);
     }
     public ChessPosition getEnPassantVulnerablePawn() {
-        return this.enPassantVulnerablePawn;
+        if (enPassantVulnerablePawn < 0) {
+            return null;
+        }
+        return ChessPosition.of(enPassantVulnerablePawn);
     }
 
     /**
@@ -386,43 +447,18 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPiece king = null;
-        ChessPosition kingPosition = null;
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-
-                if (piece != null && piece.getTeamColor() == teamColor &&
-                        piece.getPieceType() == ChessPiece.PieceType.KING) {
-                    king = piece;
-                    kingPosition = position;
-                    break;
-                }
-            }
-        }
-
-        if (king == null) {
+        int kingSquare = board.getKingSquare(teamColor);
+        if (kingSquare < 0) {
             return false; // this should never happen
         }
+        return board.isSquareAttacked(kingSquare, opponent(teamColor));
+    }
 
-        // See if any piece can attack the king
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-                if (piece != null && piece.getTeamColor() != teamColor) {
-                    List<ChessMove> moves = (List<ChessMove>) piece.pieceMoves(board, position);
-                    for (ChessMove move : moves) {
-                        if (move.getEndPosition().equals(kingPosition)) {
-                            return true;
-                        }
-                    }
-                }
-            }
-        }
-
-        return false;
+    /**
+     * @return the team playing against the given one
+     */
+    static TeamColor opponent(TeamColor team) {
+        return team == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
     }
 
     /**
@@ -432,109 +468,7 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        // Returns true if the given team has no way to protect their king from being captured.
-        ChessPiece king = null;
-        ChessPosition kingPosition = null;
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-
-                if (piece != null && piece.getTeamColor() == teamColor &&
-                        piece.getPieceType() == ChessPiece.PieceType.KING) {
-                    king = piece;
-                    kingPosition = position;
-                    break;
-                }
-            }
-        }
-
-        if (king == null) {
-            return false; // this should never happen
-        }
-
-
-        // see if any other pieces can save the day before king gets shrecked
-        List<ChessMove> helperMoves = new ArrayList<>();
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-
-                if (piece != null) {
-                    if (piece.getTeamColor()==teamColor) {
-                        if (piece.getPieceType() != ChessPiece.PieceType.KING) {
-                            helperMoves = (List<ChessMove>) piece.pieceMoves(board, position);
-                        }
-                    }
-                }
-            }
-        }
-        for (ChessMove move : helperMoves) {
-
-            ChessPiece PieceAtTarget =  board.getPiece(move.getEndPosition());
-            if (PieceAtTarget != null) {
-                board.addPiece(move.getEndPosition(), board.getPiece(move.getStartPosition()));
-            }
-
-        }
-        // see if king can capture
-        List<ChessMove> king_moves = (List<ChessMove>) king.pieceMoves(board, kingPosition);
-        for (ChessMove k_move : king_moves) {
-            ChessPosition end_move = k_move.getEndPosition();
-            ChessPiece PieceAtTarget =  board.getPiece(end_move);
-            if (PieceAtTarget != null) {
-                if (PieceAtTarget.getTeamColor() != teamColor) {
-                    // check to see if enemy can still capture
-
-                    for (int row = 1; row <= 8; row++) {
-                        for (int col = 1; col <= 8; col++) {
-                            ChessPosition position = new ChessPosition(row, col);
-                            ChessPiece piece = board.getPiece(position);
-                            List<ChessMove> moves = new ArrayList<>();
-                            if (piece != null) {
-                                if (piece.getTeamColor()!=teamColor) {
-                                    ChessBoard upBoard = board;
-                                    upBoard.addPiece(end_move, king);
-                                    moves = (List<ChessMove>) piece.pieceMoves(upBoard, position);
-
-
-
-                                    System.out.println(moves);
-                                }
-                                for (ChessMove move : moves) {
-                                    if (move.getEndPosition().equals(end_move)) {
-                                        return true;
-                                    }
-                                }
-                            }
-                        }
-                    }
-
-                    return false;
-                }
-            }
-        }
-        // See if any piece can attack the king
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-
-                if (piece != null) {
-                    List<ChessMove> moves = (List<ChessMove>) piece.pieceMoves(board, position);
-
-                    for (ChessMove move : moves) {
-
-                        if (move.getEndPosition().equals(kingPosition)) {
-
-                            return true;
-                        }
-                    }
-                }
-            }
-        }
-        return false;
+        return isInCheck(teamColor) && !hasAnyLegalMove(teamColor);
     }
 
     /**
@@ -545,90 +479,19 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        //Returns true if the given team has no legal moves but their king is not in immediate danger.
-        if (!isInCheckmate(teamColor))
-        {
-            // check if it can make a legal move
-            ChessPosition kingPosition = null;
-
-            for (int row = 1; row <= 8; row++) {
-                for (int col = 1; col <= 8; col++) {
-                    ChessPosition position = new ChessPosition(row, col);
-                    ChessPiece piece = board.getPiece(position);
-
-                    if (piece != null && piece.getTeamColor() == teamColor &&
-                            piece.getPieceType() == ChessPiece.PieceType.KING) {
-                        kingPosition = position;
-                        break;
-                    }
-                }
-            }
-
-            List<ChessMove> enemy_moves = new ArrayList<>();
-
-            for (int row = 1; row <= 8; row++) {
-                for (int col = 1; col <= 8; col++) {
-                    ChessPosition position = new ChessPosition(row, col);
-                    ChessPiece piece = board.getPiece(position);
-
-                    if (piece != null) {
-                        if (piece.getTeamColor() != teamColor) {
-                            enemy_moves = (List<ChessMove>) piece.pieceMoves(board, position);
-                        }
+        return !isInCheck(teamColor) && !hasAnyLegalMove(teamColor);
+    }
 
-                    }
-                }
-            }
-            assert kingPosition != null;
-            ChessPiece king_piece = board.getPiece(kingPosition);
-            List<ChessMove> king_moves = (List<ChessMove>) king_piece.pieceMoves(board, kingPosition);
-            for (ChessMove k_move : king_moves) {
-                for (ChessMove e_move : enemy_moves) {
-                    if (k_move.equals(e_move)) {
-                        return true;
-                    }
-                }
-            }
-            // check to see if king is pinned
-            int validMoves = king_moves.size();
-            int kingHitHere = 0;
-            boolean nextMove = true;
-            for (ChessMove k_move : king_moves) {
-                nextMove = true;
-                for (int row = 1; row <= 8; row++) {
-                    for (int col = 1; col <= 8; col++) {
-                        ChessPosition position = new ChessPosition(row, col);
-
-                        ChessPiece piece = board.getPiece(position);
-                        List<ChessMove> moves = new ArrayList<>();
-                        if (piece != null) {
-                            if (piece.getTeamColor()!=teamColor){
-                                moves = (List<ChessMove>) piece.pieceMoves(board, position);
-                            }
-                            for (ChessMove move : moves) {
-                                if (move.getEndPosition().equals(k_move.getEndPosition())) {
-                                    if (nextMove){
-                                        kingHitHere += 1;
-                                        nextMove = false;
-                                    }
-
-
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-            System.out.println(kingHitHere + " " + validMoves);
-            return kingHitHere >= validMoves && kingHitHere != 0;
-
-//            assert kingPosition != null;
-//            ChessPiece king_piece = board.getPiece(kingPosition);
-//
-//            List<ChessMove> king_moves = (List<ChessMove>) king_piece.pieceMoves(board, kingPosition);
-//            return king_moves.isEmpty();
-        }
-        return false;
+    /**
+     * Determines if the given team has at least one legal move. Stops at the
+     * first move found, trying king moves, then captures of the checking piece,
+     * then blocks, so it is much cheaper than generating every move.
+     *
+     * @param teamColor which team to look for a move for
+     * @return True if the team can make any legal move
+     */
+    public boolean hasAnyLegalMove(TeamColor teamColor) {
+        return MoveGenerator.hasLegalMove(board, teamColor, enPassantVulnerablePawn);
     }
 
     /**
@@ -638,6 +501,10 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        // Moves made on the old board can no longer be taken back
+        Arrays.fill(undoMovedPieces, 0, ply, null);
+        Arrays.fill(undoCapturedPieces, 0, ply, null);
+        ply = 0;
     }
 
     /**
@@ -12,6 +12,30 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessPiece {
+    private static final int[][] KING_DIRECTIONS = {
+            {-1, 1}, {1, 1}, {1, -1}, {-1, -1},
+            {0, 1}, {1, 0}, {-1, 0}, {0, -1}
+    };
+    private static final int[][] KNIGHT_DIRECTIONS = {
+            {-1, 2}, {-1, -2}, {-2, 1}, {-2, -1},
+            {1, 2}, {1, -2}, {2, 1}, {2, -1}
+    };
+    private static final int[][] WHITE_PAWN_DIRECTIONS = {{1, 0}, {2, 0}, {1, 1}, {1, -1}};
+    private static final int[][] BLACK_PAWN_DIRECTIONS = {{-1, 0}, {-2, 0}, {-1, 1}, {-1, -1}};
+    private static final int[][] NO_DIRECTIONS = {};
+
+    // One shared instance per team and type, indexed like the board's bitboards
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                ChessPiece piece = new ChessPiece(color, type);
+                PIECES[piece.index()] = piece;
+            }
+        }
+    }
+
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
     public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
@@ -19,6 +43,23 @@ public class ChessPiece {
         this.type = type;
     }
 
+    /**
+     * Gets the shared instance of a piece. Pieces are immutable, so the engine
+     * hands these out instead of allocating a new piece per square or promotion.
+     *
+     * @return the cached piece of the given team and type
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+        return PIECES[pieceColor.ordinal() * 6 + type.ordinal()];
+    }
+
+    /**
+     * @return the cached piece stored at the given bitboard index
+     */
+    public static ChessPiece of(int index) {
+        return PIECES[index];
+    }
+
 
     @Override
     public boolean equals(Object o) {
@@ -68,6 +109,14 @@ public class ChessPiece {
         return this.type;
     }
 
+    /**
+     * @return this piece's slot (0-11) in the board's bitboard array,
+     * white pieces first, ordered by {@link PieceType}
+     */
+    public int index() {
+        return pieceColor.ordinal() * 6 + type.ordinal();
+    }
+
     //For Promotion
     public static void addPromotionMoves(ArrayList<ChessMove> moves, ChessPosition from, ChessPosition to) {
         for (PieceType type : Arrays.asList(
@@ -82,10 +131,10 @@ public class ChessPiece {
     // Castling
     private boolean canCastle(ChessBoard board, int row, int... cols) {
         for (int i=1; i < cols.length - 1; i++) {
-            ChessPiece piece = board.getPiece(new ChessPosition(row, cols[i]));
+            ChessPiece piece = board.getPiece(ChessPosition.of(row, cols[i]));
             if (piece != null) return false; //Pathway must be empty
         }
-        ChessPiece rook = board.getPiece(new ChessPosition(row, cols[cols.length - 1]));
+        ChessPiece rook = board.getPiece(ChessPosition.of(row, cols[cols.length - 1]));
         return rook != null &&
                 rook.getPieceType() == PieceType.ROOK &&
                 rook.getTeamColor() == this.getTeamColor();
@@ -101,74 +150,45 @@ public class ChessPiece {
 
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
         ArrayList<ChessMove> moves = new ArrayList<>();
-        int[][] dirs = new int[0][0];
-        boolean inf = false;
-        boolean specialP = false;
-        if (this.type.equals(PieceType.BISHOP)) {
-            dirs = new int[][] {{-1, 1}, {1, 1}, {1, -1}, {-1, -1}
-            };
-            inf = true;
+        if (this.type == PieceType.BISHOP || this.type == PieceType.ROOK || this.type == PieceType.QUEEN) {
+            addSliderMoves(moves, board, myPosition);
+            return moves;
         }
-        else if (this.type.equals(PieceType.KING)) {
-            dirs = new int[][] {
-                    {-1, 1}, {1, 1}, {1, -1}, {-1, -1},
-                    {0,1},{1,0},{-1,0},{0,-1}
-            };
+        int[][] dirs = NO_DIRECTIONS;
+        boolean specialP = false;
+        if (this.type.equals(PieceType.KING)) {
+            dirs = KING_DIRECTIONS;
             // Attempt to castle
             int row = myPosition.getRow();
             if(getTeamColor() == ChessGame.TeamColor.WHITE && row == 1) {
                 // kingSide castling (white): col5 to col7, rook at col8
                 if (canCastle(board, 1, 5, 6, 7, 8)) {
-                    moves.add(new ChessMove(myPosition, new ChessPosition(1,7), null));
+                    moves.add(new ChessMove(myPosition, ChessPosition.of(1,7), null));
                 }
                 // queenSide castling(white): col5 to col3, rook at col1
                 if (canCastle(board, 1, 5, 4, 3, 2, 1)) {
-                    moves.add(new ChessMove(myPosition, new ChessPosition(1,3), null));
+                    moves.add(new ChessMove(myPosition, ChessPosition.of(1,3), null));
                 }
 
             }
             if(getTeamColor() == ChessGame.TeamColor.BLACK && row == 8) {
                 // kingSide castling (white): col5 to col7, rook at col8
                 if (canCastle(board, 8, 5, 6, 7, 8)) {
-                    moves.add(new ChessMove(myPosition, new ChessPosition(8,7), null));
+                    moves.add(new ChessMove(myPosition, ChessPosition.of(8,7), null));
                 }
                 // queenSide castling(white): col5 to col3, rook at col1
                 if (canCastle(board, 8, 5, 4, 3, 2, 1)) {
-                    moves.add(new ChessMove(myPosition, new ChessPosition(8,3), null));
+                    moves.add(new ChessMove(myPosition, ChessPosition.of(8,3), null));
                 }
 
             }
         }
         else if (this.type.equals(PieceType.KNIGHT)) {
-            dirs = new int[][] {
-                    {-1, 2}, {-1, -2}, {-2, 1}, {-2, -1},
-                    {1,2},{1,-2},{2,1},{2,-1}
-            };
-        }
-        else if (this.type.equals(PieceType.QUEEN)) {
-            dirs = new int[][] {
-                    {-1, 1}, {1, 1}, {1, -1}, {-1, -1},
-                    {0,1},{1,0},{-1,0},{0,-1}
-            };
-            inf = true;
-        }
-        else if (this.type.equals(PieceType.ROOK)) {
-            dirs = new int[][] {
-                    {0,1},{1,0},{-1,0},{0,-1}
-            };
-            inf = true;
+            dirs = KNIGHT_DIRECTIONS;
         }
         else if (this.type.equals(PieceType.PAWN)) {
             specialP = true;
-            dirs = new int[][] {
-                    {1,0},{2,0},{1,1},{1,-1}
-            };
-            if (getTeamColor().equals(ChessGame.TeamColor.BLACK)) {
-                dirs = new int[][] {
-                        {-1,0},{-2,0},{-1,1},{-1,-1}
-                };
-
-            }
+            dirs = getTeamColor().equals(ChessGame.TeamColor.BLACK) ? BLACK_PAWN_DIRECTIONS : WHITE_PAWN_DIRECTIONS;
         }
         for (int[] direction : dirs) {
             int oldRow = myPosition.getRow();
@@ -181,13 +201,13 @@ public class ChessPiece {
                     break;
                 }
 
-                ChessPosition newPosition = new ChessPosition(row, col);
+                ChessPosition newPosition = ChessPosition.of(row, col);
                 ChessPiece pieceAtTarget = board.getPiece(newPosition);
 
 
                 if (pieceAtTarget == null) {
                     if (specialP) {
-                        if (((oldRow==7||oldRow==2)&&(board.getPiece(new ChessPosition(3, col)) != null||board.getPiece(new ChessPosition
+                        if (((oldRow==7||oldRow==2)&&(board.getPiece(ChessPosition.of(3, col)) != null||board.getPiece(ChessPosition.of
                                 (6, col)) != null))||direction[1]!=0||((direction[0]==2||
                                 direction[0]==-2)&&oldRow!=7&&oldRow!=2)) {
                             break;
@@ -215,11 +235,27 @@ public class ChessPiece {
                     }
                     break;
                 }
-                if (!inf) {
-                    break;
-                }
+                // Kings, knights and pawns only take a single step
+                break;
             }
         }
         return moves;
     }
+
+    // Bishops, rooks and queens read their targets from the magic attack tables
+    private void addSliderMoves(ArrayList<ChessMove> moves, ChessBoard board, ChessPosition myPosition) {
+        int square = Bitboards.square(myPosition);
+        long occupied = board.getOccupied();
+        long attacks = switch (this.type) {
+            case BISHOP -> Bitboards.bishopAttacks(square, occupied);
+            case ROOK -> Bitboards.rookAttacks(square, occupied);
+            default -> Bitboards.queenAttacks(square, occupied);
+        };
+        long targets = attacks & ~board.getTeamBitboard(pieceColor);
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            moves.add(new ChessMove(myPosition, ChessPosition.of(target), null));
+            targets &= targets - 1;
+        }
+    }
 }
@@ -10,6 +10,15 @@ import java.util.Objects;
  */
 public class ChessPosition {
 
+    // One shared instance per square, indexed as in Bitboards
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            POSITIONS[square] = new ChessPosition((square >>> 3) + 1, (square & 7) + 1);
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -22,6 +31,29 @@ public class ChessPosition {
 
     }
 
+    /**
+     * Gets the shared instance of a position. Positions are immutable, so the
+     * engine hands these out instead of allocating one per square it visits.
+     *
+     * @return the cached position for the given row and column
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || col < 1 || row > 8 || col > 8) {
+            throw new IllegalArgumentException("Invalid row or col: " + row + "," + col);
+        }
+        return POSITIONS[((row - 1) << 3) | (col - 1)];
+    }
+
+    /**
+     * @return the cached position for a square index, see {@link Bitboards}
+     */
+    public static ChessPosition of(int square) {
+        if ((square & ~63) != 0) {
+            throw new IllegalArgumentException("Invalid square: " + square);
+        }
+        return POSITIONS[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -0,0 +1,160 @@
+package chess;
+
+/**
+ * Static evaluation of a position from material and piece-square tables.
+ * <p>
+ * Every piece is worth its material value plus a bonus for the square it
+ * stands on, with separate tables for the middlegame and the endgame. The
+ * board keeps the white-minus-black totals of both, and a game phase counted
+ * from the pieces left, up to date in {@link ChessBoard#addPiece(int, ChessPiece)},
+ * so evaluating a position is a constant-time blend of the two totals rather
+ * than a scan of the board.
+ * <p>
+ * The tables are the widely used "simplified evaluation function" ones. The
+ * king has its own endgame table that pulls it to the centre once the heavy
+ * pieces are off; every other piece uses the same table in both phases.
+ */
+public final class Evaluation {
+    // Indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    private static final int[] PIECE_VALUES = {0, 900, 330, 320, 500, 100};
+    private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+    // Phase of the starting position; promotions can push a game past it
+    public static final int MAX_PHASE = 24;
+
+    // Bonuses from white's side, rank 8 first, so a1 is the first entry of the
+    // last row. They read the same way as a board diagram.
+    private static final int[] KING_MIDDLEGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+    private static final int[] PAWN = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    // Signed value plus bonus, positive for white, by ChessPiece.index() then square
+    private static final int[][] MIDDLEGAME = new int[12][64];
+    private static final int[][] ENDGAME = new int[12][64];
+
+    static {
+        int[][] middlegameTables = {KING_MIDDLEGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN};
+        int[][] endgameTables = {KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN};
+        for (int type = 0; type < 6; type++) {
+            for (int square = 0; square < 64; square++) {
+                // The tables list rank 8 first, so white's squares are flipped
+                // vertically; from black's side of the board they already match
+                int white = square ^ 56;
+                MIDDLEGAME[type][square] = PIECE_VALUES[type] + middlegameTables[type][white];
+                ENDGAME[type][square] = PIECE_VALUES[type] + endgameTables[type][white];
+                MIDDLEGAME[6 + type][square] = -(PIECE_VALUES[type] + middlegameTables[type][square]);
+                ENDGAME[6 + type][square] = -(PIECE_VALUES[type] + endgameTables[type][square]);
+            }
+        }
+    }
+
+    private Evaluation() {
+    }
+
+    /**
+     * Evaluates a position without searching
+     *
+     * @param game the position to evaluate
+     * @return score in centipawns from the point of view of the team to move
+     */
+    public static int evaluate(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        int phase = Math.min(board.getPhase(), MAX_PHASE);
+        int score = (board.getMiddlegameScore() * phase + board.getEndgameScore() * (MAX_PHASE - phase)) / MAX_PHASE;
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+
+    /**
+     * @return material value of a piece type in centipawns, 0 for the king
+     */
+    public static int pieceValue(ChessPiece.PieceType type) {
+        return PIECE_VALUES[type.ordinal()];
+    }
+
+    /**
+     * @return middlegame worth of a piece on a square, positive for white
+     */
+    static int middlegame(ChessPiece piece, int square) {
+        return MIDDLEGAME[piece.index()][square];
+    }
+
+    /**
+     * @return endgame worth of a piece on a square, positive for white
+     */
+    static int endgame(ChessPiece piece, int square) {
+        return ENDGAME[piece.index()][square];
+    }
+
+    /**
+     * @return how much a piece counts toward the middlegame phase
+     */
+    static int phase(ChessPiece piece) {
+        return PHASE_WEIGHTS[piece.getPieceType().ordinal()];
+    }
+}
@@ -0,0 +1,282 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation (FEN), e.g. the start
+ * position {@value #START}.
+ * <p>
+ * Both directions work character by character over the text, with no regular
+ * expressions, splitting or intermediate strings. {@link #load} sets up an
+ * existing game in place and {@link #append} writes straight into a caller's
+ * {@link StringBuilder}, so positions can be loaded and stored in bulk
+ * without allocating. A record without the halfmove clock and move number
+ * loads with them at 0 and 1. The en passant square is only written when a
+ * pawn can legally capture there, so equal positions always format the same.
+ */
+public final class Fen {
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // FEN letter of each piece, indexed by ChessPiece.index()
+    private static final char[] LETTERS = {'K', 'Q', 'B', 'N', 'R', 'P', 'k', 'q', 'b', 'n', 'r', 'p'};
+    // ChessPiece.index() of each ASCII letter, or -1
+    private static final byte[] PIECE_INDEX = new byte[128];
+    // Largest clock accepted, well within the bits the game keeps the halfmove clock in
+    private static final int MAX_CLOCK = 999_999;
+
+    static {
+        Arrays.fill(PIECE_INDEX, (byte) -1);
+        for (int index = 0; index < LETTERS.length; index++) {
+            PIECE_INDEX[LETTERS[index]] = (byte) index;
+        }
+    }
+
+    private Fen() {
+    }
+
+    /**
+     * Creates a game from a FEN record. The halfmove clock and move number
+     * may be left off, and then start at 0 and 1.
+     *
+     * @param fen the record to read
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the record is malformed
+     */
+    public static ChessGame parse(CharSequence fen) {
+        ChessGame game = new ChessGame(new ChessBoard(), ChessGame.TeamColor.WHITE, 0, -1);
+        load(fen, game);
+        return game;
+    }
+
+    /**
+     * Sets up an existing game from a FEN record, reusing its board, so
+     * loading positions one after another allocates nothing. Moves made
+     * before can no longer be taken back.
+     *
+     * @param fen  the record to read
+     * @param game the game to set up; left unchanged if the record is malformed
+     * @throws IllegalArgumentException if the record is malformed
+     */
+    public static void load(CharSequence fen, ChessGame game) {
+        int length = fen.length();
+        int i = 0;
+
+        // Piece placement, rank 8 first, each rank from the a-file. Only
+        // checked here; the board is set up once the whole record is valid.
+        int row = 8;
+        int col = 1;
+        for (; i < length; i++) {
+            char c = fen.charAt(i);
+            if (c == ' ') {
+                break;
+            } else if (c == '/') {
+                if (col != 9 || row == 1) {
+                    throw malformed(fen, i);
+                }
+                row--;
+                col = 1;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+                if (col > 9) {
+                    throw malformed(fen, i);
+                }
+            } else {
+                int piece = c < PIECE_INDEX.length ? PIECE_INDEX[c] : -1;
+                if (piece < 0 || col > 8) {
+                    throw malformed(fen, i);
+                }
+                col++;
+            }
+        }
+        if (row != 1 || col != 9) {
+            throw malformed(fen, i);
+        }
+        int placementEnd = i;
+
+        // Side to move
+        i = skipSpace(fen, i);
+        ChessGame.TeamColor team;
+        char side = i < length ? fen.charAt(i++) : '?';
+        if (side == 'w') {
+            team = ChessGame.TeamColor.WHITE;
+        } else if (side == 'b') {
+            team = ChessGame.TeamColor.BLACK;
+        } else {
+            throw malformed(fen, i - 1);
+        }
+
+        // Castling rights
+        i = skipSpace(fen, i);
+        int castlingRights = 0;
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else {
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                int right = switch (fen.charAt(i)) {
+                    case 'K' -> ChessGame.WHITE_KINGSIDE;
+                    case 'Q' -> ChessGame.WHITE_QUEENSIDE;
+                    case 'k' -> ChessGame.BLACK_KINGSIDE;
+                    case 'q' -> ChessGame.BLACK_QUEENSIDE;
+                    default -> throw malformed(fen, i);
+                };
+                if ((castlingRights & right) != 0) {
+                    throw malformed(fen, i);
+                }
+                castlingRights |= right;
+            }
+            if (castlingRights == 0) {
+                throw malformed(fen, i);
+            }
+        }
+
+        // En passant target square, stored by the game as the pawn beyond it
+        i = skipSpace(fen, i);
+        int enPassantPawn = -1;
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else {
+            if (i + 1 >= length) {
+                throw malformed(fen, i);
+            }
+            int file = fen.charAt(i) - 'a' + 1;
+            char rank = fen.charAt(i + 1);
+            if (file < 1 || file > 8 || rank != (team == ChessGame.TeamColor.WHITE ? '6' : '3')) {
+                throw malformed(fen, i);
+            }
+            enPassantPawn = Bitboards.square(team == ChessGame.TeamColor.WHITE ? 5 : 4, file);
+            i += 2;
+        }
+
+        // Halfmove clock and move number, optional
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        for (int field = 0; field < 2 && i < length; field++) {
+            i = skipSpace(fen, i);
+            int start = i;
+            int value = 0;
+            while (i < length && fen.charAt(i) >= '0' && fen.charAt(i) <= '9') {
+                value = value * 10 + fen.charAt(i) - '0';
+                if (value > MAX_CLOCK) {
+                    throw malformed(fen, i);
+                }
+                i++;
+            }
+            if (i == start) {
+                throw malformed(fen, i);
+            }
+            if (field == 0) {
+                halfmoveClock = value;
+            } else {
+                fullmoveNumber = value;
+            }
+        }
+        if (i != length) {
+            throw malformed(fen, i);
+        }
+
+        ChessBoard board = game.getBoard();
+        board.clear();
+        row = 8;
+        col = 1;
+        for (i = 0; i < placementEnd; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                row--;
+                col = 1;
+            } else if (c <= '8') {
+                col += c - '0';
+            } else {
+                board.setUpPiece(Bitboards.square(row, col), ChessPiece.of(PIECE_INDEX[c]));
+                col++;
+            }
+        }
+        board.completeSetUp();
+        game.setPosition(team, castlingRights, enPassantPawn, halfmoveClock, fullmoveNumber);
+    }
+
+    /**
+     * @param game the game to describe
+     * @return the FEN record of the game's current position
+     */
+    public static String format(ChessGame game) {
+        StringBuilder fen = new StringBuilder(90);
+        append(game, fen);
+        return fen.toString();
+    }
+
+    /**
+     * Writes the FEN record of a game's current position without creating
+     * any other strings
+     *
+     * @param game the game to describe
+     * @param out  where to write the record
+     */
+    public static void append(ChessGame game, StringBuilder out) {
+        ChessBoard board = game.getBoard();
+        long occupied = board.getOccupied();
+        // Grow the builder once to the longest placement and fill it in place
+        int n = out.length();
+        out.setLength(n + 71);
+        for (int row = 8; row >= 1; row--) {
+            // Visit only the rank's occupied squares, counting the gaps between them
+            int rank = (int) (occupied >>> (row - 1) * 8) & 0xFF;
+            int col = 1;
+            for (; rank != 0; rank &= rank - 1) {
+                int pieceCol = Integer.numberOfTrailingZeros(rank) + 1;
+                if (pieceCol > col) {
+                    out.setCharAt(n++, (char) ('0' + pieceCol - col));
+                }
+                out.setCharAt(n++, LETTERS[board.getPiece(Bitboards.square(row, pieceCol)).index()]);
+                col = pieceCol + 1;
+            }
+            if (col <= 8) {
+                out.setCharAt(n++, (char) ('0' + 9 - col));
+            }
+            if (row > 1) {
+                out.setCharAt(n++, '/');
+            }
+        }
+        out.setLength(n);
+
+        out.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+
+        int castlingRights = game.getCastlingRights();
+        if (castlingRights == 0) {
+            out.append('-');
+        }
+        if ((castlingRights & ChessGame.WHITE_KINGSIDE) != 0) {
+            out.append('K');
+        }
+        if ((castlingRights & ChessGame.WHITE_QUEENSIDE) != 0) {
+            out.append('Q');
+        }
+        if ((castlingRights & ChessGame.BLACK_KINGSIDE) != 0) {
+            out.append('k');
+        }
+        if ((castlingRights & ChessGame.BLACK_QUEENSIDE) != 0) {
+            out.append('q');
+        }
+
+        // Like the Zobrist key, only an en passant capture that can be made counts
+        int pawn = game.capturableEnPassantPawn();
+        if (pawn < 0) {
+            out.append(" -");
+        } else {
+            // The target square is the one the pawn passed over
+            int targetRow = Bitboards.row(pawn) == 4 ? 3 : 6;
+            out.append(' ').append((char) ('a' + Bitboards.column(pawn) - 1)).append((char) ('0' + targetRow));
+        }
+        out.append(' ').append(game.getHalfmoveClock()).append(' ').append(game.getFullmoveNumber());
+    }
+
+    private static int skipSpace(CharSequence fen, int i) {
+        if (i >= fen.length() || fen.charAt(i) != ' ') {
+            throw malformed(fen, i);
+        }
+        return i + 1;
+    }
+
+    private static IllegalArgumentException malformed(CharSequence fen, int index) {
+        return new IllegalArgumentException("Malformed FEN at character " + index + ": " + fen);
+    }
+}
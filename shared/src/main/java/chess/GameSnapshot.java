@@ -0,0 +1,106 @@
+package chess;
+
+import java.util.Objects;
+
+/**
+ * An immutable copy of a {@link ChessGame}'s position: the pieces, the team
+ * to move, castling rights and en passant state.
+ * <p>
+ * Every field is final and the board inside is a private copy that nothing
+ * ever changes, so a snapshot can be handed to other threads (broadcasters,
+ * analysis workers) without locks while the live game keeps making moves.
+ * {@link ChessGame#snapshot()} only copies the board when the position has
+ * changed since the last snapshot, so asking for one after every move costs
+ * a single board copy per move.
+ */
+public final class GameSnapshot {
+    private final ChessBoard board;
+    private final ChessGame.TeamColor teamTurn;
+    private final int castlingRights;
+    private final int enPassantVulnerablePawn;
+    private final long zobristKey;
+
+    GameSnapshot(ChessBoard board, ChessGame.TeamColor teamTurn, int castlingRights, int enPassantVulnerablePawn,
+                 long zobristKey) {
+        this.board = new ChessBoard(board);
+        this.teamTurn = teamTurn;
+        this.castlingRights = castlingRights;
+        this.enPassantVulnerablePawn = enPassantVulnerablePawn;
+        this.zobristKey = zobristKey;
+    }
+
+    /**
+     * @return the piece at a position, or null if it is empty
+     */
+    public ChessPiece getPiece(ChessPosition position) {
+        return board.getPiece(position);
+    }
+
+    /**
+     * @return which team's turn it is
+     */
+    public ChessGame.TeamColor getTeamTurn() {
+        return teamTurn;
+    }
+
+    /**
+     * @return castling rights bitmask, see {@link ChessGame#WHITE_KINGSIDE} and friends
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @return the pawn that may be captured en passant, or null, including
+     * when no pawn can legally take it
+     */
+    public ChessPosition getEnPassantVulnerablePawn() {
+        return enPassantVulnerablePawn < 0 ? null : ChessPosition.of(enPassantVulnerablePawn);
+    }
+
+    /**
+     * @return the position's Zobrist key, as from {@link ChessGame#getZobristKey()}
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * @return a new board holding the snapshot's pieces, free to modify
+     */
+    public ChessBoard toBoard() {
+        return new ChessBoard(board);
+    }
+
+    /**
+     * @return a new live game in the snapshot's position
+     */
+    public ChessGame toGame() {
+        return new ChessGame(new ChessBoard(board), teamTurn, castlingRights, enPassantVulnerablePawn);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        GameSnapshot that = (GameSnapshot) o;
+        return castlingRights == that.castlingRights && enPassantVulnerablePawn == that.enPassantVulnerablePawn
+                && teamTurn == that.teamTurn && Objects.equals(board, that.board);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(zobristKey);
+    }
+
+    @Override
+    public String toString() {
+        return "GameSnapshot{" +
+                "board=" + board +
+                ", teamTurn=" + teamTurn +
+                ", castlingRights=" + castlingRights +
+                ", enPassantVulnerablePawn=" + getEnPassantVulnerablePawn() +
+                '}';
+    }
+}
@@ -0,0 +1,80 @@
+package chess;
+
+/**
+ * Packs a chess move into a single int so engine code can pass moves around
+ * without allocating a {@link ChessMove} for each one.
+ * <p>
+ * Layout: bits 0-5 hold the start square, bits 6-11 the end square (square
+ * indexes as in {@link Bitboards}), bits 12-14 the promotion piece as
+ * {@code PieceType.ordinal() + 1} (0 for none) and bits 15-18 the flags below.
+ * The value 0 never encodes a real move and stands for "no move".
+ */
+public final class Move {
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1;
+    public static final int EN_PASSANT = 2;
+    public static final int CASTLING = 4;
+    public static final int DOUBLE_PUSH = 8;
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            null, ChessPiece.PieceType.KING, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.PAWN
+    };
+
+    private Move() {
+    }
+
+    /**
+     * @return the packed move
+     */
+    public static int encode(int start, int end, ChessPiece.PieceType promotion, int flags) {
+        int promotionCode = promotion == null ? 0 : promotion.ordinal() + 1;
+        return start | end << 6 | promotionCode << 12 | flags << 15;
+    }
+
+    /**
+     * @return the packed form of a move, without flags
+     */
+    public static int encode(ChessMove move) {
+        return encode(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+
+    public static int start(int move) {
+        return move & 63;
+    }
+
+    public static int end(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return the promotion piece type, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        return PROMOTIONS[(move >>> 12) & 7];
+    }
+
+    public static int flags(int move) {
+        return move >>> 15;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & (CAPTURE | EN_PASSANT)) != 0;
+    }
+
+    /**
+     * @return the move with its flags stripped, for comparing moves from different sources
+     */
+    public static int withoutFlags(int move) {
+        return move & 0x7FFF;
+    }
+
+    /**
+     * @return the public API form of a packed move
+     */
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.of(start(move)), ChessPosition.of(end(move)), promotion(move));
+    }
+}
@@ -0,0 +1,437 @@
+package chess;
+
+/**
+ * Bitboard move generation that writes packed {@link Move}s into a {@link MoveList}.
+ * <p>
+ * Pseudo-legal generation follows each piece's movement rules, including castling
+ * and en passant, but may leave the mover's own king in check. Legal generation
+ * produces only moves that keep the king safe, in the same single pass: when in
+ * check, non-king moves must capture the checker or block its ray; pinned pieces
+ * may only move along the line through their king; king moves are tested against
+ * the enemy's attacks with the king lifted off the board; and en passant, which
+ * empties two squares on one row, re-checks the king's rays directly.
+ */
+final class MoveGenerator {
+    private static final ChessPiece.PieceType[] PROMOTION_TYPES = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT
+    };
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Appends the pseudo-legal moves of the team's pieces standing on squares in fromMask
+     *
+     * @param castlingRights the game's castling rights bitmask
+     * @param enPassantPawn  square of the pawn that just moved two rows, or -1
+     * @param fromMask       squares whose pieces should be generated for
+     */
+    static void generatePseudoLegal(ChessBoard board, ChessGame.TeamColor team, int castlingRights,
+                                    int enPassantPawn, long fromMask, MoveList moves) {
+        generate(board, team, castlingRights, enPassantPawn, fromMask, false, moves);
+    }
+
+    /**
+     * Appends the legal moves of the team's pieces standing on squares in fromMask
+     *
+     * @param castlingRights the game's castling rights bitmask
+     * @param enPassantPawn  square of the pawn that just moved two rows, or -1
+     * @param fromMask       squares whose pieces should be generated for
+     */
+    static void generateLegal(ChessBoard board, ChessGame.TeamColor team, int castlingRights,
+                              int enPassantPawn, long fromMask, MoveList moves) {
+        generate(board, team, castlingRights, enPassantPawn, fromMask, true, moves);
+    }
+
+    private static void generate(ChessBoard board, ChessGame.TeamColor team, int castlingRights,
+                                 int enPassantPawn, long fromMask, boolean legal, MoveList moves) {
+        ChessGame.TeamColor enemyTeam = ChessGame.opponent(team);
+        long own = board.getTeamBitboard(team);
+        long enemy = board.getTeamBitboard(enemyTeam);
+        long occupied = board.getOccupied();
+
+        // A team without a king (as on some test boards) can never be in check
+        int king = legal ? board.getKingSquare(team) : -1;
+        long checkMask = -1L;
+        long pinned = 0;
+        boolean inCheck = false;
+        if (king >= 0) {
+            long checkers = board.attackersTo(king, enemyTeam, occupied);
+            if (Long.bitCount(checkers) > 1) {
+                // Double check: only the king can move
+                if ((fromMask & Bitboards.bit(king)) != 0) {
+                    addKingMoves(board, enemyTeam, king, own, enemy, occupied, true, moves);
+                }
+                return;
+            }
+            if (checkers != 0) {
+                inCheck = true;
+                checkMask = checkers | Bitboards.between(king, Long.numberOfTrailingZeros(checkers));
+            }
+            pinned = pinnedPieces(board, enemyTeam, king, own, occupied);
+        }
+
+        long pieces = own & fromMask;
+        while (pieces != 0) {
+            int start = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long allowed = checkMask;
+            if ((pinned & Bitboards.bit(start)) != 0) {
+                allowed &= Bitboards.line(king, start);
+            }
+            long targets = ~own & allowed;
+            switch (board.getPiece(start).getPieceType()) {
+                case PAWN -> addPawnMoves(board, team, start, enemy, occupied, enPassantPawn, allowed, king, moves);
+                case KNIGHT -> addTargets(start, Bitboards.knightAttacks(start) & targets, enemy, moves);
+                case BISHOP -> addTargets(start, Bitboards.bishopAttacks(start, occupied) & targets, enemy, moves);
+                case ROOK -> addTargets(start, Bitboards.rookAttacks(start, occupied) & targets, enemy, moves);
+                case QUEEN -> addTargets(start, Bitboards.queenAttacks(start, occupied) & targets, enemy, moves);
+                case KING -> {
+                    addKingMoves(board, enemyTeam, start, own, enemy, occupied, legal, moves);
+                    if (!inCheck) {
+                        addCastlingMoves(board, team, enemyTeam, start, castlingRights, occupied, moves);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines whether a single move is legal for the team, checking only that
+     * move: the piece's movement rule and path, castling and en passant
+     * conditions, promotion, and that the team's king is not left attacked.
+     * Nothing is generated and the board is not changed.
+     *
+     * @param castlingRights the game's castling rights bitmask
+     * @param enPassantPawn  square of the pawn that just moved two rows, or -1
+     * @param move           packed move; flags are ignored
+     */
+    static boolean isLegal(ChessBoard board, ChessGame.TeamColor team, int castlingRights, int enPassantPawn,
+                           int move) {
+        int start = Move.start(move);
+        int end = Move.end(move);
+        ChessPiece piece = board.getPiece(start);
+        if (piece == null || piece.getTeamColor() != team) {
+            return false;
+        }
+        ChessGame.TeamColor enemyTeam = ChessGame.opponent(team);
+        long own = board.getTeamBitboard(team);
+        long enemy = board.getTeamBitboard(enemyTeam);
+        long occupied = board.getOccupied();
+        long endBit = Bitboards.bit(end);
+        if ((own & endBit) != 0) {
+            return false;
+        }
+
+        ChessPiece.PieceType type = piece.getPieceType();
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        boolean promotes = type == ChessPiece.PieceType.PAWN
+                && Bitboards.row(end) == (team == ChessGame.TeamColor.WHITE ? 8 : 1);
+        if (promotes != (promotion != null)
+                || promotion == ChessPiece.PieceType.KING || promotion == ChessPiece.PieceType.PAWN) {
+            return false;
+        }
+
+        int king = board.getKingSquare(team);
+        switch (type) {
+            case KING -> {
+                if (Math.abs(end - start) == 2 && Bitboards.row(end) == Bitboards.row(start)) {
+                    return canCastle(board, team, enemyTeam, start, end, castlingRights, occupied);
+                }
+                return (Bitboards.kingAttacks(start) & endBit) != 0
+                        && board.attackersTo(end, enemyTeam, occupied & ~Bitboards.bit(start)) == 0;
+            }
+            case PAWN -> {
+                int forward = team == ChessGame.TeamColor.WHITE ? 8 : -8;
+                if ((Bitboards.pawnAttacks(team, start) & endBit) != 0) {
+                    if ((enemy & endBit) == 0) {
+                        // Only en passant captures onto an empty square
+                        int captured = end - forward;
+                        ChessPiece target = board.getPiece(captured);
+                        return captured == enPassantPawn && target != null && target.getTeamColor() != team
+                                && target.getPieceType() == ChessPiece.PieceType.PAWN
+                                && enPassantKeepsKingSafe(board, team, start, end, captured, occupied, king);
+                    }
+                } else if (end == start + forward) {
+                    if ((occupied & endBit) != 0) {
+                        return false;
+                    }
+                } else if (end != start + 2 * forward
+                        || Bitboards.row(start) != (team == ChessGame.TeamColor.WHITE ? 2 : 7)
+                        || (occupied & (Bitboards.bit(start + forward) | endBit)) != 0) {
+                    return false;
+                }
+            }
+            case KNIGHT -> {
+                if ((Bitboards.knightAttacks(start) & endBit) == 0) {
+                    return false;
+                }
+            }
+            case BISHOP -> {
+                if ((Bitboards.bishopAttacks(start, occupied) & endBit) == 0) {
+                    return false;
+                }
+            }
+            case ROOK -> {
+                if ((Bitboards.rookAttacks(start, occupied) & endBit) == 0) {
+                    return false;
+                }
+            }
+            case QUEEN -> {
+                if ((Bitboards.queenAttacks(start, occupied) & endBit) == 0) {
+                    return false;
+                }
+            }
+        }
+
+        // The king must not be attacked once the piece has moved; a captured
+        // piece no longer attacks anything
+        if (king < 0) {
+            return true;
+        }
+        long after = (occupied & ~Bitboards.bit(start)) | endBit;
+        return (board.attackersTo(king, enemyTeam, after) & ~endBit) == 0;
+    }
+
+    /**
+     * Determines whether the team has at least one legal move, stopping at the
+     * first one found. King moves are tried first, then capturing a lone checker,
+     * then any other piece move (which, in check, must block the checking ray).
+     *
+     * @param enPassantPawn square of the pawn that just moved two rows, or -1
+     */
+    static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor team, int enPassantPawn) {
+        ChessGame.TeamColor enemyTeam = ChessGame.opponent(team);
+        long own = board.getTeamBitboard(team);
+        long enemy = board.getTeamBitboard(enemyTeam);
+        long occupied = board.getOccupied();
+        int king = board.getKingSquare(team);
+
+        long movers = own;
+        long checkMask = -1L;
+        long pinned = 0;
+        if (king >= 0) {
+            // King steps to an unattacked square
+            long withoutKing = occupied & ~Bitboards.bit(king);
+            long targets = Bitboards.kingAttacks(king) & ~own;
+            while (targets != 0) {
+                int end = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                if (board.attackersTo(end, enemyTeam, withoutKing) == 0) {
+                    return true;
+                }
+            }
+
+            long checkers = board.attackersTo(king, enemyTeam, occupied);
+            if (Long.bitCount(checkers) > 1) {
+                return false;
+            }
+            // A pinned piece can never resolve a check, and the king has been handled
+            pinned = pinnedPieces(board, enemyTeam, king, own, occupied);
+            movers &= ~Bitboards.bit(king);
+            if (checkers != 0) {
+                int checker = Long.numberOfTrailingZeros(checkers);
+                if ((board.attackersTo(checker, team, occupied) & movers & ~pinned) != 0) {
+                    return true;
+                }
+                movers &= ~pinned;
+                checkMask = Bitboards.between(king, checker);
+            }
+        }
+
+        while (movers != 0) {
+            int start = Long.numberOfTrailingZeros(movers);
+            movers &= movers - 1;
+            long allowed = checkMask;
+            if ((pinned & Bitboards.bit(start)) != 0) {
+                allowed &= Bitboards.line(king, start);
+            }
+            if ((pieceTargets(board, team, start, own, enemy, occupied) & allowed) != 0) {
+                return true;
+            }
+            if (board.getPiece(start).getPieceType() == ChessPiece.PieceType.PAWN && enPassantPawn >= 0) {
+                int end = enPassantPawn + (team == ChessGame.TeamColor.WHITE ? 8 : -8);
+                if (Bitboards.row(enPassantPawn) == Bitboards.row(start)
+                        && Math.abs(Bitboards.column(enPassantPawn) - Bitboards.column(start)) == 1
+                        && (enemy & board.getBitboard(enemyTeam, ChessPiece.PieceType.PAWN)
+                            & Bitboards.bit(enPassantPawn)) != 0
+                        && (occupied & Bitboards.bit(end)) == 0
+                        && enPassantKeepsKingSafe(board, team, start, end, enPassantPawn, occupied, king)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Squares a non-king piece could move to, ignoring check, castling and en passant
+    private static long pieceTargets(ChessBoard board, ChessGame.TeamColor team, int start, long own, long enemy,
+                                     long occupied) {
+        return switch (board.getPiece(start).getPieceType()) {
+            case PAWN -> {
+                int forward = team == ChessGame.TeamColor.WHITE ? 8 : -8;
+                int startRow = team == ChessGame.TeamColor.WHITE ? 2 : 7;
+                long targets = Bitboards.pawnAttacks(team, start) & enemy;
+                int oneStep = start + forward;
+                if (oneStep >= 0 && oneStep < 64 && (occupied & Bitboards.bit(oneStep)) == 0) {
+                    targets |= Bitboards.bit(oneStep);
+                    int twoSteps = oneStep + forward;
+                    if (Bitboards.row(start) == startRow && (occupied & Bitboards.bit(twoSteps)) == 0) {
+                        targets |= Bitboards.bit(twoSteps);
+                    }
+                }
+                yield targets;
+            }
+            case KNIGHT -> Bitboards.knightAttacks(start) & ~own;
+            case BISHOP -> Bitboards.bishopAttacks(start, occupied) & ~own;
+            case ROOK -> Bitboards.rookAttacks(start, occupied) & ~own;
+            case QUEEN -> Bitboards.queenAttacks(start, occupied) & ~own;
+            case KING -> Bitboards.kingAttacks(start) & ~own;
+        };
+    }
+
+    // Own pieces that are the only thing between our king and an enemy slider
+    private static long pinnedPieces(ChessBoard board, ChessGame.TeamColor enemyTeam, int king, long own,
+                                     long occupied) {
+        long queens = board.getBitboard(enemyTeam, ChessPiece.PieceType.QUEEN);
+        long snipers = (Bitboards.rookAttacks(king, 0) & (board.getBitboard(enemyTeam, ChessPiece.PieceType.ROOK) | queens))
+                | (Bitboards.bishopAttacks(king, 0) & (board.getBitboard(enemyTeam, ChessPiece.PieceType.BISHOP) | queens));
+        long pinned = 0;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Bitboards.between(king, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & own;
+            }
+        }
+        return pinned;
+    }
+
+    private static void addTargets(int start, long targets, long enemy, MoveList moves) {
+        while (targets != 0) {
+            int end = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(Move.encode(start, end, null, (enemy & Bitboards.bit(end)) != 0 ? Move.CAPTURE : 0));
+        }
+    }
+
+    private static void addKingMoves(ChessBoard board, ChessGame.TeamColor enemyTeam, int start, long own,
+                                     long enemy, long occupied, boolean legal, MoveList moves) {
+        long targets = Bitboards.kingAttacks(start) & ~own;
+        if (!legal) {
+            addTargets(start, targets, enemy, moves);
+            return;
+        }
+        // Lift the king off so squares behind it along a checking ray count as attacked
+        long withoutKing = occupied & ~Bitboards.bit(start);
+        while (targets != 0) {
+            int end = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (board.attackersTo(end, enemyTeam, withoutKing) == 0) {
+                moves.add(Move.encode(start, end, null, (enemy & Bitboards.bit(end)) != 0 ? Move.CAPTURE : 0));
+            }
+        }
+    }
+
+    private static void addPawnMoves(ChessBoard board, ChessGame.TeamColor team, int start, long enemy,
+                                     long occupied, int enPassantPawn, long allowed, int king, MoveList moves) {
+        boolean white = team == ChessGame.TeamColor.WHITE;
+        int forward = white ? 8 : -8;
+        int startRow = white ? 2 : 7;
+
+        // Pushes, two rows from the starting row when both squares are empty
+        int oneStep = start + forward;
+        if (oneStep >= 0 && oneStep < 64 && (occupied & Bitboards.bit(oneStep)) == 0) {
+            if ((allowed & Bitboards.bit(oneStep)) != 0) {
+                addPawnMove(team, start, oneStep, 0, moves);
+            }
+            int twoSteps = oneStep + forward;
+            if (Bitboards.row(start) == startRow && (occupied & Bitboards.bit(twoSteps)) == 0
+                    && (allowed & Bitboards.bit(twoSteps)) != 0) {
+                moves.add(Move.encode(start, twoSteps, null, Move.DOUBLE_PUSH));
+            }
+        }
+
+        long captures = Bitboards.pawnAttacks(team, start) & enemy & allowed;
+        while (captures != 0) {
+            int end = Long.numberOfTrailingZeros(captures);
+            captures &= captures - 1;
+            addPawnMove(team, start, end, Move.CAPTURE, moves);
+        }
+
+        // En passant: take the enemy pawn beside us by moving behind it
+        if (enPassantPawn >= 0 && Bitboards.row(enPassantPawn) == Bitboards.row(start)
+                && Math.abs(Bitboards.column(enPassantPawn) - Bitboards.column(start)) == 1) {
+            ChessPiece target = board.getPiece(enPassantPawn);
+            int end = enPassantPawn + forward;
+            if (target != null && target.getTeamColor() != team && target.getPieceType() == ChessPiece.PieceType.PAWN
+                    && end >= 0 && end < 64 && (occupied & Bitboards.bit(end)) == 0
+                    && enPassantKeepsKingSafe(board, team, start, end, enPassantPawn, occupied, king)) {
+                moves.add(Move.encode(start, end, null, Move.EN_PASSANT));
+            }
+        }
+    }
+
+    private static boolean enPassantKeepsKingSafe(ChessBoard board, ChessGame.TeamColor team, int start, int end,
+                                                  int capturedPawn, long occupied, int king) {
+        if (king < 0) {
+            return true;
+        }
+        long after = (occupied & ~Bitboards.bit(start) & ~Bitboards.bit(capturedPawn)) | Bitboards.bit(end);
+        return (board.attackersTo(king, ChessGame.opponent(team), after) & ~Bitboards.bit(capturedPawn)) == 0;
+    }
+
+    private static void addPawnMove(ChessGame.TeamColor team, int start, int end, int flags, MoveList moves) {
+        int promotionRow = team == ChessGame.TeamColor.WHITE ? 8 : 1;
+        if (Bitboards.row(end) == promotionRow) {
+            for (ChessPiece.PieceType type : PROMOTION_TYPES) {
+                moves.add(Move.encode(start, end, type, flags));
+            }
+        } else {
+            moves.add(Move.encode(start, end, null, flags));
+        }
+    }
+
+    // Castling needs the right, an empty path, the rook at home and no attacked square
+    // under the king's start, path or destination
+    private static void addCastlingMoves(ChessBoard board, ChessGame.TeamColor team, ChessGame.TeamColor enemyTeam,
+                                         int start, int castlingRights, long occupied, MoveList moves) {
+        int home = team == ChessGame.TeamColor.WHITE ? 0 : 56;
+        if (canCastle(board, team, enemyTeam, start, home + 6, castlingRights, occupied)) {
+            moves.add(Move.encode(start, home + 6, null, Move.CASTLING));
+        }
+        if (canCastle(board, team, enemyTeam, start, home + 2, castlingRights, occupied)) {
+            moves.add(Move.encode(start, home + 2, null, Move.CASTLING));
+        }
+    }
+
+    private static boolean canCastle(ChessBoard board, ChessGame.TeamColor team, ChessGame.TeamColor enemyTeam,
+                                     int start, int end, int castlingRights, long occupied) {
+        int home = team == ChessGame.TeamColor.WHITE ? 0 : 56;
+        if (start != home + 4) {
+            return false;
+        }
+        long rooks = board.getBitboard(team, ChessPiece.PieceType.ROOK);
+        if (end == home + 6) {
+            int kingSide = team == ChessGame.TeamColor.WHITE ? ChessGame.WHITE_KINGSIDE : ChessGame.BLACK_KINGSIDE;
+            return (castlingRights & kingSide) != 0
+                    && (rooks & Bitboards.bit(home + 7)) != 0
+                    && (occupied & (Bitboards.bit(home + 5) | Bitboards.bit(home + 6))) == 0
+                    && !board.isSquareAttacked(home + 4, enemyTeam)
+                    && !board.isSquareAttacked(home + 5, enemyTeam)
+                    && !board.isSquareAttacked(home + 6, enemyTeam);
+        }
+        if (end == home + 2) {
+            int queenSide = team == ChessGame.TeamColor.WHITE ? ChessGame.WHITE_QUEENSIDE : ChessGame.BLACK_QUEENSIDE;
+            return (castlingRights & queenSide) != 0
+                    && (rooks & Bitboards.bit(home)) != 0
+                    && (occupied & (Bitboards.bit(home + 1) | Bitboards.bit(home + 2) | Bitboards.bit(home + 3))) == 0
+                    && !board.isSquareAttacked(home + 4, enemyTeam)
+                    && !board.isSquareAttacked(home + 3, enemyTeam)
+                    && !board.isSquareAttacked(home + 2, enemyTeam);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,155 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Sorts moves so that alpha-beta search tries the likeliest best move first.
+ * <p>
+ * Moves are tried in this order: the move the transposition table remembers,
+ * then captures and promotions with the most valuable victim taken by the
+ * least valuable attacker first (MVV-LVA), then the two killer moves of the
+ * ply (quiet moves that recently caused a cutoff at the same depth in a
+ * sibling position), then the remaining quiet moves by their history score,
+ * a from-square by to-square count of past cutoffs weighted by depth.
+ * <p>
+ * Moves are scored into a reused array per ply and insertion sorted in
+ * place in the {@link MoveList}, so ordering allocates nothing. One instance
+ * belongs to one search thread.
+ */
+public class MoveOrdering {
+    private static final int HASH_MOVE_SCORE = 2_000_000;
+    private static final int CAPTURE_SCORE = 1_000_000;
+    private static final int FIRST_KILLER_SCORE = 900_000;
+    private static final int SECOND_KILLER_SCORE = 800_000;
+    // History scores are halved when one passes this, keeping them below the killers
+    private static final int HISTORY_LIMIT = 400_000;
+
+    private final int[][] scores;
+    private final int[][] killers;
+    // Butterfly history, indexed by team, start square, end square
+    private final int[][][] history = new int[2][64][64];
+
+    /**
+     * @param maxPly deepest ply the search can reach
+     */
+    public MoveOrdering(int maxPly) {
+        this.scores = new int[maxPly + 1][256];
+        this.killers = new int[maxPly + 1][2];
+    }
+
+    /**
+     * Sorts a list of legal moves, best candidates first
+     *
+     * @param board    the position the moves are for
+     * @param moves    the moves to sort in place
+     * @param hashMove move to put first, or {@link Move#NONE}
+     * @param ply      distance from the root, selecting the killer moves
+     */
+    public void order(ChessBoard board, MoveList moves, int hashMove, int ply) {
+        int size = moves.size();
+        if (scores[ply].length < size) {
+            scores[ply] = new int[size];
+        }
+        int[] moveScores = scores[ply];
+        int hash = Move.withoutFlags(hashMove);
+        int[] plyKillers = killers[ply];
+
+        for (int i = 0; i < size; i++) {
+            int move = moves.get(i);
+            int score;
+            if (hashMove != Move.NONE && Move.withoutFlags(move) == hash) {
+                score = HASH_MOVE_SCORE;
+            } else if (Move.isCapture(move) || Move.promotion(move) != null) {
+                score = CAPTURE_SCORE + captureScore(board, move);
+            } else if (move == plyKillers[0]) {
+                score = FIRST_KILLER_SCORE;
+            } else if (move == plyKillers[1]) {
+                score = SECOND_KILLER_SCORE;
+            } else {
+                ChessPiece piece = board.getPiece(Move.start(move));
+                score = history[piece.getTeamColor().ordinal()][Move.start(move)][Move.end(move)];
+            }
+            moveScores[i] = score;
+        }
+
+        for (int i = 1; i < size; i++) {
+            int move = moves.get(i);
+            int score = moveScores[i];
+            int j = i - 1;
+            while (j >= 0 && moveScores[j] < score) {
+                moves.set(j + 1, moves.get(j));
+                moveScores[j + 1] = moveScores[j];
+                j--;
+            }
+            moves.set(j + 1, move);
+            moveScores[j + 1] = score;
+        }
+    }
+
+    /**
+     * Records a quiet move that caused a beta cutoff, so it is tried earlier in
+     * later positions. Captures are ordered well without this and are ignored.
+     *
+     * @param move  the move that failed high
+     * @param team  the team that made it
+     * @param depth remaining depth of the node, weighting the history bonus
+     * @param ply   distance of the node from the root
+     */
+    public void recordCutoff(int move, ChessGame.TeamColor team, int depth, int ply) {
+        if (Move.isCapture(move) || Move.promotion(move) != null) {
+            return;
+        }
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+
+        int[] fromHistory = history[team.ordinal()][Move.start(move)];
+        fromHistory[Move.end(move)] += depth * depth;
+        if (fromHistory[Move.end(move)] > HISTORY_LIMIT) {
+            ageHistory();
+        }
+    }
+
+    /**
+     * Prepares for a new search: killers from another position are dropped and
+     * history is halved, so it still helps but adapts to the new position
+     */
+    public void newSearch() {
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, Move.NONE);
+        }
+        ageHistory();
+    }
+
+    // Captures score 10 times the victim's value less the attacker's, plus the
+    // promotion piece's value, so any gain of material outranks a cheaper attacker
+    private static int captureScore(ChessBoard board, int move) {
+        int score = 0;
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        if (promotion != null) {
+            score += Evaluation.pieceValue(promotion);
+        }
+        if ((Move.flags(move) & Move.EN_PASSANT) != 0) {
+            return score + 10 * Evaluation.pieceValue(ChessPiece.PieceType.PAWN)
+                    - Evaluation.pieceValue(ChessPiece.PieceType.PAWN);
+        }
+        ChessPiece victim = board.getPiece(Move.end(move));
+        if (victim != null) {
+            ChessPiece attacker = board.getPiece(Move.start(move));
+            score += 10 * Evaluation.pieceValue(victim.getPieceType()) - Evaluation.pieceValue(attacker.getPieceType());
+        }
+        return score;
+    }
+
+    private void ageHistory() {
+        for (int[][] teamHistory : history) {
+            for (int[] fromHistory : teamHistory) {
+                for (int to = 0; to < 64; to++) {
+                    fromHistory[to] >>= 1;
+                }
+            }
+        }
+    }
+}
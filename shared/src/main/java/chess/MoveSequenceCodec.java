@@ -0,0 +1,109 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compact encoding of a game as its sequence of moves, for archiving.
+ * <p>
+ * Each move is stored as one byte: its index among the legal moves of the
+ * position it was played in. No position has more than 218 legal moves, so
+ * every move fits in a byte, and a 40 move game takes 80 bytes. Decoding
+ * replays the moves from the starting position through
+ * {@link ChessGame#makeMove(int)}, so the starting position must be known,
+ * either the standard one or one stored alongside, e.g. with
+ * {@link PositionCodec}.
+ * <p>
+ * The order of the legal moves is the format's wire contract, and archived
+ * games depend on it never changing: moves are sorted by start square, then
+ * end square, then promotion piece. Squares are numbered as in
+ * {@link Bitboards}, from 0 for a1 to 63 for h8, and promotions come after
+ * the move without one, ordered as in {@link ChessPiece.PieceType}. The order
+ * is computed here from those fields alone, never from the packed
+ * {@link Move} value, so changes to the engine's move flags or packing
+ * cannot change the meaning of stored games.
+ */
+public final class MoveSequenceCodec {
+
+    private MoveSequenceCodec() {
+    }
+
+    // Position of a move in the wire order: start square, end square, promotion
+    private static int orderKey(int move) {
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        return Move.start(move) << 9 | Move.end(move) << 3 | (promotion == null ? 0 : promotion.ordinal() + 1);
+    }
+
+    /**
+     * @param start the position the moves were played from; it is not modified
+     * @param moves the moves of the game, in order
+     * @return one byte per move
+     * @throws IllegalArgumentException if a move is not legal in its position
+     */
+    public static byte[] encode(ChessGame start, List<ChessMove> moves) {
+        ChessGame game = new ChessGame(start);
+        MoveList legal = new MoveList();
+        byte[] encoded = new byte[moves.size()];
+        for (int ply = 0; ply < encoded.length; ply++) {
+            legal.clear();
+            game.generateLegalMoves(game.getTeamTurn(), legal);
+            int target = Move.withoutFlags(Move.encode(moves.get(ply)));
+
+            int played = Move.NONE;
+            for (int i = 0; i < legal.size(); i++) {
+                int move = legal.get(i);
+                if (Move.withoutFlags(move) == target) {
+                    played = move;
+                }
+            }
+            if (played == Move.NONE) {
+                throw new IllegalArgumentException("Illegal move at ply " + ply + ": " + moves.get(ply));
+            }
+            // The index in wire order is the count of moves that sort before it
+            int key = orderKey(played);
+            int index = 0;
+            for (int i = 0; i < legal.size(); i++) {
+                if (orderKey(legal.get(i)) < key) {
+                    index++;
+                }
+            }
+            encoded[ply] = (byte) index;
+            game.makeMove(played);
+        }
+        return encoded;
+    }
+
+    /**
+     * Replays an encoded game
+     *
+     * @param game    the position the moves were played from; the moves are
+     *                made on it, leaving it at the end of the game
+     * @param encoded bytes written by {@link #encode}
+     * @return the moves of the game, in order
+     * @throws IllegalArgumentException if a byte is not a legal move's index
+     */
+    public static List<ChessMove> decode(ChessGame game, byte[] encoded) {
+        MoveList legal = new MoveList();
+        // Order keys with each move's list index in the low byte, sorted to find the indexed move
+        int[] keys = new int[256];
+        List<ChessMove> moves = new ArrayList<>(encoded.length);
+        for (int ply = 0; ply < encoded.length; ply++) {
+            legal.clear();
+            game.generateLegalMoves(game.getTeamTurn(), legal);
+            int index = encoded[ply] & 0xFF;
+            if (index >= legal.size()) {
+                throw new IllegalArgumentException("Move index " + index + " at ply " + ply + " is out of range, only "
+                        + legal.size() + " legal moves");
+            }
+            for (int i = 0; i < legal.size(); i++) {
+                keys[i] = orderKey(legal.get(i)) << 8 | i;
+            }
+            Arrays.sort(keys, 0, legal.size());
+            int move = legal.get(keys[index] & 0xFF);
+            game.makeMove(move);
+            moves.add(Move.toChessMove(move));
+        }
+        return moves;
+    }
+}
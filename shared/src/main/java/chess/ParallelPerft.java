@@ -0,0 +1,106 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts perft leaf nodes on several threads by splitting the tree near the
+ * root across a {@link ForkJoinPool}.
+ * <p>
+ * Each root move (and, with a split depth of 2, each reply to it) becomes a
+ * task that works on its own copy of the game with its own {@link Perft}, so
+ * workers share nothing and the counts add up to exactly the single-threaded
+ * result. Splitting a second ply gives the pool several hundred tasks instead
+ * of a few dozen, which keeps many-core machines busy when a few root moves
+ * have much bigger subtrees than the rest.
+ * <p>
+ * Workers may share one {@link PerftCache}, which needs no locking.
+ */
+public class ParallelPerft {
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+    private final PerftCache cache;
+
+    /**
+     * Splits the first two plies across the common pool
+     */
+    public ParallelPerft() {
+        this(ForkJoinPool.commonPool(), 2);
+    }
+
+    /**
+     * @param pool       the pool to run tasks on
+     * @param splitDepth how many plies below the root to split into tasks, at least 1
+     */
+    public ParallelPerft(ForkJoinPool pool, int splitDepth) {
+        this(pool, splitDepth, null);
+    }
+
+    /**
+     * @param pool       the pool to run tasks on
+     * @param splitDepth how many plies below the root to split into tasks, at least 1
+     * @param cache      table of subtree counts shared by all workers, or null for none
+     */
+    public ParallelPerft(ForkJoinPool pool, int splitDepth, PerftCache cache) {
+        if (splitDepth < 1) {
+            throw new IllegalArgumentException("Split depth must be at least 1: " + splitDepth);
+        }
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+        this.cache = cache;
+    }
+
+    /**
+     * Counts leaf nodes from the game's current position, like
+     * {@link Perft#count(ChessGame, int)}. The game itself is never modified.
+     *
+     * @param game  the position to count from
+     * @param depth number of plies to search, at least 1
+     * @return number of distinct move sequences of exactly that length
+     */
+    public long count(ChessGame game, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Perft depth must be at least 1: " + depth);
+        }
+        return pool.invoke(new SubtreeTask(new ChessGame(game), depth, splitDepth));
+    }
+
+    // Fork/join tasks are Serializable by inheritance but never serialized
+    @SuppressWarnings("serial")
+    private class SubtreeTask extends RecursiveTask<Long> {
+        private final ChessGame game;
+        private final int depth;
+        private final int splitsLeft;
+
+        SubtreeTask(ChessGame game, int depth, int splitsLeft) {
+            this.game = game;
+            this.depth = depth;
+            this.splitsLeft = splitsLeft;
+        }
+
+        @Override
+        protected Long compute() {
+            if (splitsLeft == 0 || depth == 1) {
+                return new Perft(cache).count(game, depth);
+            }
+
+            MoveList moves = new MoveList();
+            game.generateLegalMoves(game.getTeamTurn(), moves);
+            List<SubtreeTask> tasks = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                ChessGame child = new ChessGame(game);
+                child.makeMove(moves.get(i));
+                tasks.add(new SubtreeTask(child, depth - 1, splitsLeft - 1));
+            }
+            invokeAll(tasks);
+
+            long nodes = 0;
+            for (SubtreeTask task : tasks) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth (perft).
+ * <p>
+ * Published perft counts for standard positions pin down every rule the move
+ * generator implements, so a matching count is a strong correctness check, and
+ * the nodes counted per second are a direct measure of move generation speed.
+ * <p>
+ * A Perft reuses one move buffer per ply and walks the tree with
+ * {@link ChessGame#makeMove(int)} and {@link ChessGame#unmakeMove()}, so
+ * counting allocates nothing. Instances are not thread safe.
+ * <p>
+ * Given a {@link PerftCache}, subtree counts are stored by position and looked
+ * up again when a transposition reaches the same position at the same depth.
+ */
+public class Perft {
+    private final PerftCache cache;
+    private MoveList[] moveLists = new MoveList[0];
+
+    public Perft() {
+        this(null);
+    }
+
+    /**
+     * @param cache table to store subtree counts in, or null to count every node
+     */
+    public Perft(PerftCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Counts leaf nodes from the game's current position, with the team to move
+     * moving first. The game is left as it was found.
+     *
+     * @param game  the position to count from
+     * @param depth number of plies to search, at least 1
+     * @return number of distinct move sequences of exactly that length
+     */
+    public long count(ChessGame game, int depth) {
+        ensureDepth(depth);
+        return count(game, depth, game.getTeamTurn());
+    }
+
+    /**
+     * Counts leaf nodes below each root move separately, the usual way of
+     * narrowing down where a move generator disagrees with a reference count
+     *
+     * @return each legal root move with its leaf count, in generation order
+     */
+    public Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        ensureDepth(depth);
+        ChessGame.TeamColor team = game.getTeamTurn();
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(team, moves);
+
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            game.makeMove(move);
+            counts.put(Move.toChessMove(move), depth == 1 ? 1L : count(game, depth - 1, ChessGame.opponent(team)));
+            game.unmakeMove();
+        }
+        return counts;
+    }
+
+    private long count(ChessGame game, int depth, ChessGame.TeamColor team) {
+        long key = 0;
+        if (cache != null && depth > 1) {
+            key = game.getZobristKey();
+            long cached = cache.get(key, depth);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+
+        MoveList moves = moveLists[depth];
+        game.generateLegalMoves(team, moves);
+        if (depth == 1) {
+            // Bulk count: every legal move at the last ply is one leaf
+            return moves.size();
+        }
+
+        long nodes = 0;
+        ChessGame.TeamColor next = ChessGame.opponent(team);
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            nodes += count(game, depth - 1, next);
+            game.unmakeMove();
+        }
+        if (cache != null) {
+            cache.put(key, depth, nodes);
+        }
+        return nodes;
+    }
+
+    private void ensureDepth(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Perft depth must be at least 1: " + depth);
+        }
+        if (moveLists.length <= depth) {
+            MoveList[] grown = new MoveList[depth + 1];
+            for (int ply = 0; ply <= depth; ply++) {
+                grown[ply] = ply < moveLists.length ? moveLists[ply] : new MoveList();
+            }
+            moveLists = grown;
+        }
+    }
+}
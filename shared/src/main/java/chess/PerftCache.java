@@ -0,0 +1,91 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash table of perft subtree counts, keyed by a position's
+ * Zobrist key and the remaining depth.
+ * <p>
+ * Deep perft reaches the same positions through many move orders, so storing
+ * each subtree count once and looking it up on later visits skips most of
+ * the tree. The table is a flat long array of two-entry buckets. The first
+ * entry in a bucket keeps the deepest count seen and the second is always
+ * overwritten, so big subtrees stay cached while recent small ones still get
+ * a slot.
+ * <p>
+ * The table takes no locks and can be shared by {@link ParallelPerft}
+ * workers. Each entry is stored as {@code key ^ data} beside {@code data},
+ * so an entry torn by two threads writing at once no longer matches its key
+ * and reads as a miss instead of a wrong count.
+ */
+public class PerftCache {
+    // Two entries per bucket, each a (key ^ data, data) pair of longs
+    private static final int BUCKET_LONGS = 4;
+    private static final int MAX_BUCKETS = 1 << 28;
+
+    private final long[] table;
+    private final int bucketMask;
+
+    /**
+     * @param megabytes memory to use for the table, rounded down to a power of two
+     *                  number of buckets
+     */
+    public PerftCache(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Perft cache size must be at least 1 MB: " + megabytes);
+        }
+        long buckets = ((long) megabytes << 20) / (BUCKET_LONGS * Long.BYTES);
+        int bucketCount = (int) Math.min(Long.highestOneBit(buckets), MAX_BUCKETS);
+        this.table = new long[bucketCount * BUCKET_LONGS];
+        this.bucketMask = bucketCount - 1;
+    }
+
+    /**
+     * Looks up a stored subtree count
+     *
+     * @param key   Zobrist key of the position
+     * @param depth remaining depth below the position
+     * @return the stored count, or -1 if the table has none
+     */
+    public long get(long key, int depth) {
+        int index = ((int) key & bucketMask) * BUCKET_LONGS;
+        for (int entry = index; entry < index + BUCKET_LONGS; entry += 2) {
+            long data = table[entry + 1];
+            if ((table[entry] ^ data) == key && (data & 0xFF) == depth) {
+                return data >>> 8;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stores a subtree count, replacing a shallower entry in the bucket
+     *
+     * @param key   Zobrist key of the position
+     * @param depth remaining depth below the position, below 256
+     * @param nodes leaf count of the subtree, below 2<sup>56</sup>
+     */
+    public void put(long key, int depth, long nodes) {
+        int index = ((int) key & bucketMask) * BUCKET_LONGS;
+        long data = nodes << 8 | depth;
+        if (depth < (table[index + 1] & 0xFF)) {
+            index += 2;
+        }
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+
+    /**
+     * Removes every stored count
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    /**
+     * @return number of entries the table can hold
+     */
+    public int capacity() {
+        return table.length / 2;
+    }
+}
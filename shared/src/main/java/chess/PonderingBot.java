@@ -0,0 +1,188 @@
+package chess;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A computer player for one game that keeps thinking while its opponent does.
+ * <p>
+ * After choosing a move, the bot guesses the opponent's reply from its
+ * transposition table and searches the position after that reply on its own
+ * thread until it is asked for its next move. If the opponent played the
+ * guessed reply, the ponder search carries on for whatever is left of the
+ * move's time budget once the time already spent pondering is counted, so a
+ * long ponder gives a near-instant reply. Otherwise it is stopped and a
+ * normal search starts.
+ * <p>
+ * Either way, the bot's {@link Search} persists between moves, along with its
+ * transposition table and move ordering history, so each search starts warm.
+ * Use one bot per game, from one thread at a time, and close it when the
+ * game ends.
+ */
+public class PonderingBot implements AutoCloseable {
+    private final TranspositionTable table;
+    private final Search search;
+    private final ExecutorService ponderThread;
+
+    private Future<Integer> ponder;
+    // The opponent reply being pondered, and the Zobrist key of the position after it
+    private int ponderMove = Move.NONE;
+    private long ponderKey;
+    private long ponderStartNanos;
+
+    /**
+     * @param tableMegabytes size of the bot's transposition table
+     */
+    public PonderingBot(int tableMegabytes) {
+        this(new TranspositionTable(tableMegabytes));
+    }
+
+    private PonderingBot(TranspositionTable table) {
+        this(table, new Search(table));
+    }
+
+    /**
+     * @param table  the bot's transposition table
+     * @param search a search over that table, kept for the whole game
+     */
+    PonderingBot(TranspositionTable table, Search search) {
+        this.table = table;
+        this.search = search;
+        this.ponderThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bot-ponder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Chooses a move for the team whose turn it is, then starts pondering the
+     * opponent's likely reply
+     *
+     * @param game            the current position; it is not modified
+     * @param timeLimitMillis how long to think for
+     * @return the chosen move, or null if the team to move has no legal move
+     */
+    public ChessMove chooseMove(ChessGame game, long timeLimitMillis) {
+        int move;
+        if (ponder != null && ponderKey == game.getZobristKey()) {
+            // Ponder hit: the search already running is on this very position
+            move = finishPonder(timeLimitMillis);
+        } else {
+            stopPondering();
+            move = Move.NONE;
+        }
+        if (move == Move.NONE) {
+            table.newSearch();
+            search.getTimeManager().startFixed(timeLimitMillis);
+            move = search.search(new ChessGame(game), Search.MAX_PLY, 1);
+        }
+        if (move == Move.NONE) {
+            return null;
+        }
+        startPondering(game, move);
+        return Move.toChessMove(move);
+    }
+
+    /**
+     * @return True if the bot is thinking on the opponent's time
+     */
+    public boolean isPondering() {
+        return ponder != null;
+    }
+
+    /**
+     * @return the opponent reply the bot is pondering, or null if it is not pondering
+     */
+    public ChessMove getPonderMove() {
+        return ponder == null ? null : Move.toChessMove(ponderMove);
+    }
+
+    /**
+     * Stops pondering and releases the bot's thread
+     */
+    @Override
+    public void close() {
+        stopPondering();
+        ponderThread.shutdownNow();
+    }
+
+    private void startPondering(ChessGame game, int move) {
+        ChessGame position = new ChessGame(game);
+        position.makeMove(move);
+        int reply = TranspositionTable.move(table.probe(position.getZobristKey()));
+        if (reply == Move.NONE) {
+            return;
+        }
+        MoveList replies = new MoveList();
+        position.generateLegalMoves(position.getTeamTurn(), replies);
+        if (!replies.contains(reply)) {
+            return; // a stale entry from another position
+        }
+
+        position.makeMove(reply);
+        ponderMove = reply;
+        ponderKey = position.getZobristKey();
+        table.newSearch();
+        search.getTimeManager().startInfinite();
+        ponderStartNanos = System.nanoTime();
+        ponder = ponderThread.submit(() -> search.search(position, Search.MAX_PLY, 1));
+    }
+
+    // Lets the ponder search use what is left of the move's budget, counting
+    // the time already spent pondering, then takes its move
+    private int finishPonder(long timeLimitMillis) {
+        Future<Integer> running = ponder;
+        ponder = null;
+        long remainingMillis = timeLimitMillis - (System.nanoTime() - ponderStartNanos) / 1_000_000L;
+        if (remainingMillis <= 0) {
+            search.stop();
+            return awaitPonder(running);
+        }
+        try {
+            return running.get(remainingMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            search.stop();
+            return awaitPonder(running);
+        } catch (InterruptedException e) {
+            search.stop();
+            int move = awaitPonder(running);
+            Thread.currentThread().interrupt();
+            return move;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ponder search failed", e.getCause());
+        }
+    }
+
+    private void stopPondering() {
+        if (ponder != null) {
+            search.stop();
+            awaitPonder(ponder);
+            ponder = null;
+        }
+    }
+
+    // Waits out a search that has been told to stop, so the Search can be reused
+    private static int awaitPonder(Future<Integer> running) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return running.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Ponder search failed", e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package chess;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A fixed-size binary encoding of a game's position, for storage and network
+ * transfer where the JSON form of the board is far too large.
+ * <p>
+ * Every position takes {@value #SIZE} bytes:
+ * <ul>
+ *     <li>8 bytes: occupancy bitboard, big-endian, bit n set when square n holds a piece</li>
+ *     <li>16 bytes: a 4-bit code per occupied square in square order, two per byte,
+ *     high nibble first, zero padded. The code is {@link ChessPiece#index()}.</li>
+ *     <li>1 byte: castling rights in bits 0-3, bit 4 set when black is to move</li>
+ *     <li>1 byte: file of the pawn that may be captured en passant, or 0 when
+ *     there is none or no pawn can legally take it, so equal positions encode
+ *     the same</li>
+ * </ul>
+ * The halfmove clock and move number are not stored; decoding starts them
+ * again at 0 and 1. Encoding and decoding work directly on a
+ * {@link ByteBuffer} and allocate nothing when decoding into an existing game.
+ */
+public final class PositionCodec {
+    public static final int SIZE = 26;
+    // A legal position never has more pieces than the nibbles hold
+    private static final int MAX_PIECES = 32;
+    private static final int BLACK_TO_MOVE = 16;
+
+    private PositionCodec() {
+    }
+
+    /**
+     * @param game the game to encode
+     * @return a new array holding the game's position
+     */
+    public static byte[] encode(ChessGame game) {
+        byte[] bytes = new byte[SIZE];
+        encode(game, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Writes a game's position at the buffer's position, advancing it by {@value #SIZE}
+     *
+     * @param game the game to encode
+     * @param out  where to write the position
+     * @throws IllegalArgumentException if the board holds more than 32 pieces
+     */
+    public static void encode(ChessGame game, ByteBuffer out) {
+        ChessBoard board = game.getBoard();
+        long occupancy = board.getOccupied();
+        if (Long.bitCount(occupancy) > MAX_PIECES) {
+            throw new IllegalArgumentException("Too many pieces to encode: " + Long.bitCount(occupancy));
+        }
+        out.putLong(out.order() == ByteOrder.BIG_ENDIAN ? occupancy : Long.reverseBytes(occupancy));
+
+        int written = 0;
+        int pending = 0;
+        for (long pieces = occupancy; pieces != 0; pieces &= pieces - 1) {
+            int code = board.getPiece(Long.numberOfTrailingZeros(pieces)).index();
+            if ((written++ & 1) == 0) {
+                pending = code << 4;
+            } else {
+                out.put((byte) (pending | code));
+            }
+        }
+        if ((written & 1) != 0) {
+            out.put((byte) pending);
+            written++;
+        }
+        for (; written < MAX_PIECES; written += 2) {
+            out.put((byte) 0);
+        }
+
+        int state = game.getCastlingRights();
+        if (game.getTeamTurn() == ChessGame.TeamColor.BLACK) {
+            state |= BLACK_TO_MOVE;
+        }
+        out.put((byte) state);
+        int enPassantPawn = game.capturableEnPassantPawn();
+        out.put((byte) (enPassantPawn < 0 ? 0 : Bitboards.column(enPassantPawn)));
+    }
+
+    /**
+     * @param bytes a position written by {@link #encode(ChessGame)}
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the bytes are not a valid position
+     */
+    public static ChessGame decode(byte[] bytes) {
+        ChessGame game = new ChessGame(new ChessBoard(), ChessGame.TeamColor.WHITE, 0, -1);
+        decode(ByteBuffer.wrap(bytes), game);
+        return game;
+    }
+
+    /**
+     * Reads a position at the buffer's position into an existing game,
+     * reusing its board, and advances the buffer by {@value #SIZE}. Moves
+     * made before can no longer be taken back.
+     *
+     * @param in   where to read the position from
+     * @param game the game to set up; left unchanged if the bytes are invalid
+     * @throws IllegalArgumentException if the bytes are not a valid position
+     */
+    public static void decode(ByteBuffer in, ChessGame game) {
+        if (in.remaining() < SIZE) {
+            throw new IllegalArgumentException("Encoded position needs " + SIZE + " bytes, only "
+                    + in.remaining() + " remain");
+        }
+        int start = in.position();
+        long occupancy = in.getLong(start);
+        if (in.order() != ByteOrder.BIG_ENDIAN) {
+            occupancy = Long.reverseBytes(occupancy);
+        }
+        if (Long.bitCount(occupancy) > MAX_PIECES) {
+            throw new IllegalArgumentException("Too many pieces in encoded position: " + Long.bitCount(occupancy));
+        }
+
+        // Check everything before touching the game or the buffer's position
+        int count = Long.bitCount(occupancy);
+        for (int read = 0; read < count; read++) {
+            int code = pieceCode(in, start + 8, read);
+            if (code >= 12) {
+                throw new IllegalArgumentException("Invalid piece code in encoded position: " + code);
+            }
+        }
+        int state = in.get(start + 8 + MAX_PIECES / 2);
+        int file = in.get(start + 9 + MAX_PIECES / 2);
+        if ((state & ~(BLACK_TO_MOVE | 15)) != 0 || file < 0 || file > 8) {
+            throw new IllegalArgumentException("Invalid state in encoded position");
+        }
+
+        ChessBoard board = game.getBoard();
+        board.clear();
+        int read = 0;
+        for (long pieces = occupancy; pieces != 0; pieces &= pieces - 1) {
+            board.setUpPiece(Long.numberOfTrailingZeros(pieces), ChessPiece.of(pieceCode(in, start + 8, read++)));
+        }
+        board.completeSetUp();
+        in.position(start + SIZE);
+
+        ChessGame.TeamColor team = (state & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        int enPassantPawn = -1;
+        if (file != 0) {
+            enPassantPawn = Bitboards.square(team == ChessGame.TeamColor.WHITE ? 5 : 4, file);
+        }
+        game.setPosition(team, state & 15, enPassantPawn, 0, 1);
+    }
+
+    // The 4-bit code of the read-th occupied square, high nibble first
+    private static int pieceCode(ByteBuffer in, int start, int read) {
+        int packed = in.get(start + (read >> 1));
+        return (read & 1) == 0 ? (packed >>> 4) & 15 : packed & 15;
+    }
+}
@@ -0,0 +1,365 @@
+package chess;
+
+/**
+ * Picks a move for the team whose turn it is with iterative deepening
+ * alpha-beta search under a time limit. Not thread safe; give each bot its own.
+ */
+public class Search {
+    public static final int MAX_PLY = 64;
+    // Score for delivering mate now; mates further away score a little less
+    public static final int MATE_SCORE = 30000;
+    static final int INFINITY = 32000;
+
+    private static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+    private final TranspositionTable table;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final MoveOrdering ordering = new MoveOrdering(MAX_PLY);
+    private final StaticExchange exchange = new StaticExchange();
+    private final TimeManager timeManager;
+    private boolean stopped;
+    private long nodes;
+    private int bestMove;
+    private int bestScore;
+    private int completedDepth;
+
+    public Search() {
+        this(new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * @param table transposition table to use, which may be shared with other searches
+     */
+    public Search(TranspositionTable table) {
+        this(table, new TimeManager());
+    }
+
+    /**
+     * @param table       transposition table to use, which may be shared with other searches
+     * @param timeManager the search's time control, for example one with a test clock
+     */
+    public Search(TranspositionTable table, TimeManager timeManager) {
+        this.table = table;
+        this.timeManager = timeManager;
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Finds the best move within a time budget
+     *
+     * @param game            the position to search; it is not modified
+     * @param timeLimitMillis how long to search for
+     * @return the best move found, or null if the team to move has no legal move
+     */
+    public ChessMove findBestMove(ChessGame game, long timeLimitMillis) {
+        return findBestMove(game, MAX_PLY, timeLimitMillis);
+    }
+
+    /**
+     * Finds the best move, stopping at a depth or a time budget, whichever comes first
+     *
+     * @param game            the position to search; it is not modified
+     * @param maxDepth        deepest iteration to search, in plies
+     * @param timeLimitMillis how long to search for
+     * @return the best move found, or null if the team to move has no legal move
+     */
+    public ChessMove findBestMove(ChessGame game, int maxDepth, long timeLimitMillis) {
+        timeManager.startFixed(timeLimitMillis);
+        return runSearch(game, maxDepth);
+    }
+
+    /**
+     * Finds the best move, budgeting the time from a game clock
+     *
+     * @param game            the position to search; it is not modified
+     * @param remainingMillis time left on the clock of the team to move
+     * @param incrementMillis time added to that clock after each move
+     * @param movesToGo       moves left until the next time control, or 0 if unknown
+     * @return the best move found, or null if the team to move has no legal move
+     */
+    public ChessMove findBestMove(ChessGame game, long remainingMillis, long incrementMillis, int movesToGo) {
+        timeManager.start(remainingMillis, incrementMillis, movesToGo);
+        return runSearch(game, MAX_PLY);
+    }
+
+    /**
+     * Asks a running search to finish, from any thread. The search returns
+     * the best move of the last iteration it completed.
+     */
+    public void stop() {
+        timeManager.stop();
+    }
+
+    /**
+     * @return the time control the search checks, to be started before {@link #search}
+     */
+    public TimeManager getTimeManager() {
+        return timeManager;
+    }
+
+    private ChessMove runSearch(ChessGame game, int maxDepth) {
+        table.newSearch();
+        int move = search(new ChessGame(game), maxDepth, 1);
+        return move == Move.NONE ? null : Move.toChessMove(move);
+    }
+
+    /**
+     * Searches a game the caller owns, without starting a new table generation,
+     * so several searches can work on one position together. The caller starts
+     * the time manager first.
+     *
+     * @param firstDepth depth of the first iteration
+     * @return the best packed move, or {@link Move#NONE} if there is no legal move
+     */
+    int search(ChessGame position, int maxDepth, int firstDepth) {
+        stopped = false;
+        nodes = 0;
+        bestScore = 0;
+        completedDepth = 0;
+        ordering.newSearch();
+
+        MoveList rootMoves = moveLists[0];
+        position.generateLegalMoves(position.getTeamTurn(), rootMoves);
+        if (rootMoves.isEmpty()) {
+            bestMove = Move.NONE;
+            return Move.NONE;
+        }
+        ordering.order(position.getBoard(), rootMoves, Move.NONE, 0);
+        bestMove = rootMoves.get(0);
+
+        for (int depth = firstDepth; depth <= Math.min(maxDepth, MAX_PLY); depth++) {
+            if (depth > firstDepth && !timeManager.canStartIteration()) {
+                break;
+            }
+            int score = searchRoot(position, rootMoves, depth);
+            if (stopped) {
+                break;
+            }
+            bestScore = score;
+            completedDepth = depth;
+            if (Math.abs(score) >= MATE_SCORE - MAX_PLY) {
+                break; // a forced mate can't get any shorter by searching deeper
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * @return score of the last search's best move in centipawns, from the
+     * searching team's point of view
+     */
+    public int getScore() {
+        return bestScore;
+    }
+
+    /**
+     * @return depth of the deepest iteration the last search finished
+     */
+    public int getDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * @return number of positions the last search visited
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    private int searchRoot(ChessGame game, MoveList moves, int depth) {
+        int alpha = -INFINITY;
+        int iterationBest = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            game.makeMove(move);
+            int score = -negamax(game, depth - 1, -INFINITY, -alpha, 1);
+            game.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > alpha) {
+                alpha = score;
+                iterationBest = move;
+            }
+        }
+        bestMove = iterationBest;
+        moveToFront(moves, iterationBest);
+        table.store(game.getZobristKey(), depth, TranspositionTable.EXACT, alpha, iterationBest);
+        return alpha;
+    }
+
+    private int negamax(ChessGame game, int depth, int alpha, int beta, int ply) {
+        if (depth == 0) {
+            return quiescence(game, alpha, beta, ply);
+        }
+        if (shouldStop()) {
+            return 0;
+        }
+        if (ply == MAX_PLY) {
+            return Evaluation.evaluate(game);
+        }
+
+        long key = game.getZobristKey();
+        long entry = table.probe(key);
+        int hashMove = Move.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        ChessGame.TeamColor team = game.getTeamTurn();
+        MoveList moves = moveLists[ply];
+        game.generateLegalMoves(team, moves);
+        if (moves.isEmpty()) {
+            return game.isInCheck(team) ? -MATE_SCORE + ply : 0;
+        }
+        ordering.order(game.getBoard(), moves, hashMove, ply);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMoveHere = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            game.makeMove(move);
+            int score = -negamax(game, depth - 1, -beta, -alpha, ply + 1);
+            game.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMoveHere = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (score >= beta) {
+                        ordering.recordCutoff(move, team, depth, ply);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.LOWER_BOUND
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(key, depth, bound, scoreToTable(best, ply), bestMoveHere);
+        return best;
+    }
+
+    // Searches only captures and promotions that don't lose material, letting
+    // the team to move stand pat on the static evaluation instead. In check
+    // every evasion is searched, since standing pat may not be possible.
+    private int quiescence(ChessGame game, int alpha, int beta, int ply) {
+        if (shouldStop()) {
+            return 0;
+        }
+        ChessGame.TeamColor team = game.getTeamTurn();
+        boolean inCheck = game.isInCheck(team);
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = Evaluation.evaluate(game);
+            if (best >= beta || ply == MAX_PLY) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        } else if (ply == MAX_PLY) {
+            return Evaluation.evaluate(game);
+        }
+
+        MoveList moves = moveLists[ply];
+        game.generateLegalMoves(team, moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE_SCORE + ply : 0;
+        }
+        if (!inCheck) {
+            retainCaptures(moves);
+        }
+        ordering.order(game.getBoard(), moves, Move.NONE, ply);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (!inCheck && exchange.evaluate(game.getBoard(), move) < 0) {
+                continue;
+            }
+            game.makeMove(move);
+            int score = -quiescence(game, -beta, -alpha, ply + 1);
+            game.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    // Counts a node and asks the time manager whether to abandon the iteration
+    private boolean shouldStop() {
+        nodes++;
+        if (timeManager.isTimeUp()) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private static void retainCaptures(MoveList moves) {
+        int kept = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Move.isCapture(move) || Move.promotion(move) != null) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    // Mate scores count plies from the root; the table stores them counted
+    // from the node instead, so they stay right when reached at another ply
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE_SCORE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -MATE_SCORE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE_SCORE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -MATE_SCORE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    private static void moveToFront(MoveList moves, int move) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                for (int j = i; j > 0; j--) {
+                    moves.set(j, moves.get(j - 1));
+                }
+                moves.set(0, move);
+                return;
+            }
+        }
+    }
+}
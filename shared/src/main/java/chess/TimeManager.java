@@ -0,0 +1,137 @@
+package chess;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Decides how long a search may think, with a soft limit for starting new
+ * iterations and a hard limit for abandoning one. Belongs to one search
+ * thread, except for {@link #stop()}.
+ */
+public class TimeManager {
+    // Moves assumed left in the game when the clock doesn't say
+    public static final int DEFAULT_MOVES_TO_GO = 30;
+    // Time kept back for sending the move and the server's own overhead
+    public static final long MOVE_OVERHEAD_MILLIS = 50;
+    // Calls to isTimeUp() between clock reads
+    public static final int CHECK_INTERVAL = 1024;
+    // How many soft limits the hard limit allows
+    private static final int HARD_LIMIT_FACTOR = 3;
+
+    private final LongSupplier clock;
+    private long startTime;
+    private long softLimit;
+    private long hardLimit;
+    private int countdown;
+    private boolean timeUp;
+    private volatile boolean stopRequested;
+
+    public TimeManager() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * @param clock source of the current time in nanoseconds
+     */
+    public TimeManager(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Starts timing a move with a fixed budget, used as both limits
+     *
+     * @param millis time the move may take
+     */
+    public void startFixed(long millis) {
+        begin(millis * 1_000_000L, millis * 1_000_000L);
+    }
+
+    /**
+     * Starts timing a move under a game clock
+     *
+     * @param remainingMillis time left on the mover's clock
+     * @param incrementMillis time added to the clock after each move
+     * @param movesToGo       moves left until the next time control, or 0 if unknown
+     */
+    public void start(long remainingMillis, long incrementMillis, int movesToGo) {
+        int moves = movesToGo > 0 ? movesToGo : DEFAULT_MOVES_TO_GO;
+        long available = Math.max(0, remainingMillis - MOVE_OVERHEAD_MILLIS);
+        long hard = Math.min((available / moves + incrementMillis * 3 / 4) * HARD_LIMIT_FACTOR,
+                available - available / 8);
+        long soft = Math.min(available / moves + incrementMillis * 3 / 4, hard);
+        begin(soft * 1_000_000L, hard * 1_000_000L);
+    }
+
+    /**
+     * Starts timing a search that runs until {@link #stop()} is called, such as pondering
+     */
+    public void startInfinite() {
+        begin(Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Asks the search to stop at its next check, from any thread
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Called once per node. Reads the clock only every {@value #CHECK_INTERVAL}
+     * calls, so it is cheap enough for the innermost loop.
+     *
+     * @return True once the hard limit has passed or a stop was requested
+     */
+    public boolean isTimeUp() {
+        if (--countdown > 0) {
+            return timeUp;
+        }
+        countdown = CHECK_INTERVAL;
+        if (stopRequested || elapsedNanos() >= hardLimit) {
+            timeUp = true;
+        }
+        return timeUp;
+    }
+
+    /**
+     * Called between iterations of iterative deepening
+     *
+     * @return True if there is time to start another iteration
+     */
+    public boolean canStartIteration() {
+        return !timeUp && !stopRequested && elapsedNanos() < softLimit;
+    }
+
+    /**
+     * @return time since the move started
+     */
+    public long elapsedMillis() {
+        return elapsedNanos() / 1_000_000L;
+    }
+
+    /**
+     * @return the time the current move should take, in milliseconds
+     */
+    public long getSoftLimitMillis() {
+        return softLimit / 1_000_000L;
+    }
+
+    /**
+     * @return the most time the current move may take, in milliseconds
+     */
+    public long getHardLimitMillis() {
+        return hardLimit / 1_000_000L;
+    }
+
+    private void begin(long softNanos, long hardNanos) {
+        startTime = clock.getAsLong();
+        softLimit = softNanos;
+        hardLimit = hardNanos;
+        countdown = CHECK_INTERVAL;
+        timeUp = false;
+        stopRequested = false;
+    }
+
+    private long elapsedNanos() {
+        return clock.getAsLong() - startTime;
+    }
+}
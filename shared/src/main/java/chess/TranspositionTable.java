@@ -0,0 +1,140 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash table of search results, keyed by Zobrist key, that any
+ * number of search threads can share without locking.
+ * <p>
+ * Each entry packs the best move, score, depth, bound type and the search
+ * generation that wrote it into one long, stored beside {@code key ^ data}
+ * as in {@link PerftCache}. A reader that catches an entry half written by
+ * another thread sees a key that doesn't match and treats it as a miss, so
+ * no lock is needed.
+ * <p>
+ * Entries come in two-entry buckets. The first entry is replaced only by a
+ * search at least as deep or by a newer search, and the second always, so
+ * expensive results survive while the current search still finds room.
+ * Entries are 16 bytes, so the megabytes given to the constructor set the
+ * trade-off between memory per game and search strength directly.
+ */
+public class TranspositionTable {
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    // Packed entry: bits 0-18 move, 19-34 score + 32768, 35-42 depth,
+    // 43-44 bound, 45-52 generation. A zero entry is empty.
+    private static final int SCORE_SHIFT = 19;
+    private static final int DEPTH_SHIFT = 35;
+    private static final int BOUND_SHIFT = 43;
+    private static final int GENERATION_SHIFT = 45;
+
+    private static final int BUCKET_LONGS = 4;
+    private static final int MAX_BUCKETS = 1 << 28;
+
+    private final long[] table;
+    private final int bucketMask;
+    private int generation;
+
+    /**
+     * @param megabytes memory to use for the table, rounded down to a power of two
+     *                  number of buckets
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table size must be at least 1 MB: " + megabytes);
+        }
+        long buckets = ((long) megabytes << 20) / (BUCKET_LONGS * Long.BYTES);
+        int bucketCount = (int) Math.min(Long.highestOneBit(buckets), MAX_BUCKETS);
+        this.table = new long[bucketCount * BUCKET_LONGS];
+        this.bucketMask = bucketCount - 1;
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @param key Zobrist key of the position
+     * @return the packed entry, or 0 if the table has none; read it with
+     * {@link #move}, {@link #score}, {@link #depth} and {@link #bound}
+     */
+    public long probe(long key) {
+        int index = ((int) key & bucketMask) * BUCKET_LONGS;
+        for (int entry = index; entry < index + BUCKET_LONGS; entry += 2) {
+            long data = table[entry + 1];
+            if (data != 0 && (table[entry] ^ data) == key) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the result of searching a position
+     *
+     * @param key   Zobrist key of the position
+     * @param depth depth searched below the position, below 256
+     * @param bound whether the score is {@link #EXACT}, a {@link #LOWER_BOUND} or an {@link #UPPER_BOUND}
+     * @param score the score found
+     * @param move  best move found, or {@link Move#NONE}
+     */
+    public void store(long key, int depth, int bound, int score, int move) {
+        int index = ((int) key & bucketMask) * BUCKET_LONGS;
+        long data = (move & 0x7FFFFL)
+                | (long) (score + 32768) << SCORE_SHIFT
+                | (long) depth << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT
+                | (long) generation << GENERATION_SHIFT;
+
+        long first = table[index + 1];
+        boolean replaceFirst = first == 0 || (table[index] ^ first) == key
+                || generation(first) != generation || depth >= depth(first);
+        if (!replaceFirst) {
+            index += 2;
+        }
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches are
+     * replaced before those of the current one
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Removes every entry
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    /**
+     * @return number of entries the table can hold
+     */
+    public int capacity() {
+        return table.length / 2;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0x7FFFF);
+    }
+
+    public static int score(long entry) {
+        return (int) ((entry >>> SCORE_SHIFT) & 0xFFFF) - 32768;
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> BOUND_SHIFT) & 3);
+    }
+
+    private static int generation(long entry) {
+        return (int) ((entry >>> GENERATION_SHIFT) & 0xFF);
+    }
+}
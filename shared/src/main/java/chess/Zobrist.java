@@ -0,0 +1,69 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random 64-bit keys for Zobrist hashing. A position's key is the XOR of the key
+ * for every piece on its square, plus keys for black to move, the castling
+ * rights and the en passant file, so a move updates it with a few XORs.
+ * <p>
+ * The keys come from a fixed seed so they are the same in every process,
+ * letting stored keys be compared across servers and restarts.
+ */
+public final class Zobrist {
+    private static final long SEED = 0x5EED_C4E5_5L;
+
+    // Indexed by ChessPiece.index(), then square
+    private static final long[][] PIECE_KEYS = new long[12][64];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] squares : PIECE_KEYS) {
+            for (int square = 0; square < 64; square++) {
+                squares[square] = random.nextLong();
+            }
+        }
+        // No rights at all hashes to nothing, like an empty board
+        for (int rights = 1; rights < 16; rights++) {
+            CASTLING_KEYS[rights] = random.nextLong();
+        }
+        for (int col = 0; col < 8; col++) {
+            EN_PASSANT_KEYS[col] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @return the key for a piece standing on a square
+     */
+    public static long piece(ChessPiece piece, int square) {
+        return PIECE_KEYS[piece.index()][square];
+    }
+
+    /**
+     * @return the key for a castling rights bitmask
+     */
+    public static long castling(int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    /**
+     * @return the key for a pawn that may be captured en passant on the given square
+     */
+    public static long enPassant(int pawnSquare) {
+        return EN_PASSANT_KEYS[pawnSquare & 7];
+    }
+
+    /**
+     * @return the key XORed in when it is black's turn
+     */
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+}
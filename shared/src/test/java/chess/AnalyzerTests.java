@@ -0,0 +1,45 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AnalyzerTests {
+
+    @Test
+    @DisplayName("Threads Agree On A Mate")
+    public void findsMateWithHelpers() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                | | | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |P|P|P|
+                |R| | | | | |K| |
+                """);
+
+        try (Analyzer analyzer = new Analyzer(3, 1)) {
+            for (int run = 0; run < 2; run++) {
+                Analyzer.Result result = analyzer.analyze(game, 4, 10_000);
+                Assertions.assertEquals(EngineTestUtilities.move(1, 1, 8, 1),
+                        result.getBestMove());
+                Assertions.assertEquals(Search.MATE_SCORE - 1, result.getScore());
+                Assertions.assertTrue(result.getNodes() > 0);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Returns Within The Time Limit")
+    public void stopsAtDeadline() {
+        try (Analyzer analyzer = new Analyzer(2, 1)) {
+            long start = System.nanoTime();
+            Analyzer.Result result = analyzer.analyze(new ChessGame(), Search.MAX_PLY, 200);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            Assertions.assertNotNull(result.getBestMove());
+            Assertions.assertTrue(elapsedMillis < 2_000, "Analysis took " + elapsedMillis + " ms");
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class BitboardTests {
+    private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {1, 0}, {-1, 0}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    @Test
+    @DisplayName("Magic Slider Attacks Match Walking Each Ray")
+    public void magicAttacksMatchRays() {
+        Random random = new Random(2024);
+        for (int square = 0; square < 64; square++) {
+            for (int i = 0; i < 200; i++) {
+                // Sparse and dense boards, with and without the slider's own square
+                long occupied = i % 2 == 0 ? random.nextLong() : random.nextLong() & random.nextLong();
+                if (i % 4 < 2) {
+                    occupied |= Bitboards.bit(square);
+                }
+                long rook = rayAttacks(square, occupied, ROOK_DIRECTIONS);
+                long bishop = rayAttacks(square, occupied, BISHOP_DIRECTIONS);
+                Assertions.assertEquals(rook, Bitboards.rookAttacks(square, occupied), "rook on square " + square);
+                Assertions.assertEquals(bishop, Bitboards.bishopAttacks(square, occupied),
+                        "bishop on square " + square);
+                Assertions.assertEquals(rook | bishop, Bitboards.queenAttacks(square, occupied),
+                        "queen on square " + square);
+            }
+            Assertions.assertEquals(rayAttacks(square, 0L, ROOK_DIRECTIONS), Bitboards.rookAttacks(square, 0L));
+            Assertions.assertEquals(rayAttacks(square, -1L, BISHOP_DIRECTIONS), Bitboards.bishopAttacks(square, -1L));
+        }
+    }
+
+    @Test
+    @DisplayName("Bitboards Mirror The Squares As Pieces Are Added, Replaced And Removed")
+    public void mirrorFollowsAddPiece() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        assertMirrorsSquares(board);
+
+        ChessPiece whiteQueen = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
+        board.addPiece(new ChessPosition(4, 4), whiteQueen);
+        assertMirrorsSquares(board);
+        // Replace a black pawn, as a capture does
+        board.addPiece(new ChessPosition(7, 4), whiteQueen);
+        assertMirrorsSquares(board);
+        board.addPiece(new ChessPosition(7, 4), null);
+        board.addPiece(new ChessPosition(1, 1), null);
+        assertMirrorsSquares(board);
+        Assertions.assertEquals(31, Long.bitCount(board.getOccupied()));
+
+        board.clear();
+        assertMirrorsSquares(board);
+        Assertions.assertEquals(0L, board.getOccupied());
+    }
+
+    @Test
+    @DisplayName("Bitboards Mirror The Squares Through Special Moves And Their Undo")
+    public void mirrorFollowsMoves() throws InvalidMoveException {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                |r| | | |k| | |r|
+                | |P| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | |P| | | |
+                |R| | | |K| | |R|
+                """);
+        ChessMove[] moves = {
+                EngineTestUtilities.move(2, 5, 4, 5),
+                EngineTestUtilities.move(4, 4, 3, 5),
+                EngineTestUtilities.move(7, 2, 8, 1, ChessPiece.PieceType.KNIGHT),
+                EngineTestUtilities.move(8, 5, 8, 7),
+                EngineTestUtilities.move(1, 5, 1, 3)
+        };
+        for (ChessMove move : moves) {
+            game.makeMove(move);
+            assertMirrorsSquares(game.getBoard());
+        }
+        for (int i = 0; i < moves.length; i++) {
+            game.unmakeMove();
+            assertMirrorsSquares(game.getBoard());
+        }
+    }
+
+    // Attacks found the slow way, stopping each ray at the first occupied square
+    private static long rayAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0;
+        for (int[] direction : directions) {
+            int row = Bitboards.row(square) + direction[0];
+            int col = Bitboards.column(square) + direction[1];
+            for (; row >= 1 && row <= 8 && col >= 1 && col <= 8; row += direction[0], col += direction[1]) {
+                long bit = Bitboards.bit(Bitboards.square(row, col));
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+            }
+        }
+        return attacks;
+    }
+
+    private static void assertMirrorsSquares(ChessBoard board) {
+        long occupied = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            long bit = Bitboards.bit(square);
+            for (ChessGame.TeamColor team : ChessGame.TeamColor.values()) {
+                for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                    boolean expected = piece != null && piece.getTeamColor() == team && piece.getPieceType() == type;
+                    Assertions.assertEquals(expected, (board.getBitboard(team, type) & bit) != 0,
+                            team + " " + type + " bitboard at square " + square);
+                }
+                boolean expected = piece != null && piece.getTeamColor() == team;
+                Assertions.assertEquals(expected, (board.getTeamBitboard(team) & bit) != 0,
+                        team + " bitboard at square " + square);
+            }
+            if (piece != null) {
+                occupied |= bit;
+            }
+        }
+        Assertions.assertEquals(occupied, board.getOccupied());
+    }
+}
@@ -0,0 +1,40 @@
+package chess;
+
+import passoff.chess.TestUtilities;
+
+/**
+ * Fixtures shared by the engine tests
+ */
+final class EngineTestUtilities {
+
+    private EngineTestUtilities() {
+    }
+
+    /**
+     * @param boardText a board in {@link TestUtilities#loadBoard} format
+     * @return a new game on that board with white to move
+     */
+    static ChessGame gameWithBoard(String boardText) {
+        return gameWithBoard(boardText, ChessGame.TeamColor.WHITE);
+    }
+
+    /**
+     * @param boardText a board in {@link TestUtilities#loadBoard} format
+     * @param turn      the team to move
+     * @return a new game on that board
+     */
+    static ChessGame gameWithBoard(String boardText, ChessGame.TeamColor turn) {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard(boardText));
+        game.setTeamTurn(turn);
+        return game;
+    }
+
+    static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return move(startRow, startCol, endRow, endCol, null);
+    }
+
+    static ChessMove move(int startRow, int startCol, int endRow, int endCol, ChessPiece.PieceType promotion) {
+        return new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), promotion);
+    }
+}
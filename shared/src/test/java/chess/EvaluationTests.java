@@ -0,0 +1,76 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+public class EvaluationTests {
+
+    @Test
+    @DisplayName("Start Position Is Level")
+    public void startPositionIsLevel() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(0, Evaluation.evaluate(game));
+        Assertions.assertEquals(Evaluation.MAX_PHASE, game.getBoard().getPhase());
+    }
+
+    @Test
+    @DisplayName("Incremental Totals Match A Freshly Built Board")
+    public void incrementalTotalsMatchRebuild() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessBoard start = new ChessBoard(game.getBoard());
+        game.makeMove(EngineTestUtilities.move(2, 5, 4, 5));
+        game.makeMove(EngineTestUtilities.move(7, 4, 5, 4));
+        game.makeMove(EngineTestUtilities.move(4, 5, 5, 4));
+
+        ChessBoard rebuilt = TestUtilities.loadBoard("""
+                |r|n|b|q|k|b|n|r|
+                |p|p|p| |p|p|p|p|
+                | | | | | | | | |
+                | | | |P| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |P|P|P|P| |P|P|P|
+                |R|N|B|Q|K|B|N|R|
+                """);
+        ChessBoard board = game.getBoard();
+        Assertions.assertEquals(rebuilt.getMiddlegameScore(), board.getMiddlegameScore());
+        Assertions.assertEquals(rebuilt.getEndgameScore(), board.getEndgameScore());
+        Assertions.assertEquals(rebuilt.getPhase(), board.getPhase());
+        Assertions.assertTrue(Evaluation.evaluate(game) < -50, "Black is a pawn down and to move");
+
+        game.unmakeMove();
+        game.unmakeMove();
+        game.unmakeMove();
+        Assertions.assertEquals(start.getMiddlegameScore(), board.getMiddlegameScore());
+        Assertions.assertEquals(start.getEndgameScore(), board.getEndgameScore());
+    }
+
+    @Test
+    @DisplayName("Mirrored Positions Score The Same")
+    public void mirroredPositionsScoreTheSame() {
+        ChessGame white = EngineTestUtilities.gameWithBoard("""
+                | | | | |k| | | |
+                | | | | | |p|p| |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | |N| | | | | |
+                | | | | | | | | |
+                |P|P| | | | | | |
+                | | | |Q|K| | |R|
+                """, ChessGame.TeamColor.WHITE);
+        ChessGame black = EngineTestUtilities.gameWithBoard("""
+                | | | |q|k| | |r|
+                |p|p| | | | | | |
+                | | | | | | | | |
+                | | |n| | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |P|P| |
+                | | | | |K| | | |
+                """, ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(Evaluation.evaluate(white), Evaluation.evaluate(black));
+        Assertions.assertTrue(Evaluation.evaluate(white) > 900);
+    }
+}
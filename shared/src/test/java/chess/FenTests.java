@@ -0,0 +1,158 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FenTests {
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    @DisplayName("Start Position")
+    public void startPosition() {
+        ChessGame game = Fen.parse(Fen.START);
+        Assertions.assertEquals(new ChessGame(), game);
+        Assertions.assertEquals(new ChessGame().getZobristKey(), game.getZobristKey());
+        Assertions.assertEquals(Fen.START, Fen.format(new ChessGame()));
+    }
+
+    @Test
+    @DisplayName("Matches The Same Board Loaded From Text")
+    public void matchesTextBoard() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                |r| | | |k| | |r|
+                |p| |p|p|q|p|b| |
+                |b|n| | |p|n|p| |
+                | | | |P|N| | | |
+                | |p| | |P| | | |
+                | | |N| | |Q| |p|
+                |P|P|P|B|B|P|P|P|
+                |R| | | |K| | |R|
+                """);
+        Assertions.assertEquals(game.getZobristKey(), Fen.parse(KIWIPETE).getZobristKey());
+        Assertions.assertEquals(KIWIPETE, Fen.format(game));
+        Assertions.assertEquals(97862, new Perft().count(Fen.parse(KIWIPETE), 3));
+    }
+
+    @Test
+    @DisplayName("Side To Move, Castling And Clocks")
+    public void stateFields() {
+        // Perft position 4: partial castling rights and a promotion race
+        String fen = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+        ChessGame game = Fen.parse(fen);
+        Assertions.assertEquals(ChessGame.BLACK_KINGSIDE | ChessGame.BLACK_QUEENSIDE, game.getCastlingRights());
+        Assertions.assertEquals(fen, Fen.format(game));
+        Assertions.assertEquals(9467, new Perft().count(game, 3));
+
+        ChessGame black = Fen.parse("4k3/8/8/8/8/8/8/4K3 b - - 37 112");
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, black.getTeamTurn());
+        Assertions.assertEquals(0, black.getCastlingRights());
+        Assertions.assertEquals(37, black.getHalfmoveClock());
+        Assertions.assertEquals(112, black.getFullmoveNumber());
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 37 112", Fen.format(black));
+        Assertions.assertEquals(black.getZobristKey(), Fen.parse("4k3/8/8/8/8/8/8/4K3 b - -").getZobristKey());
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 0 1", Fen.format(Fen.parse("4k3/8/8/8/8/8/8/4K3 b - -")));
+    }
+
+    @Test
+    @DisplayName("Clocks Follow Moves, Undo And Copies")
+    public void clocks() throws InvalidMoveException {
+        String fen = "4k3/8/8/8/8/8/4P3/4K3 b - - 37 52";
+        ChessGame game = Fen.parse(fen);
+        Assertions.assertEquals(fen, Fen.format(game));
+        Assertions.assertEquals(fen, Fen.format(new ChessGame(game)));
+
+        // A king move adds to the clock and black's move ends move 52
+        game.makeMove(EngineTestUtilities.move(8, 5, 8, 4));
+        Assertions.assertEquals("3k4/8/8/8/8/8/4P3/4K3 w - - 38 53", Fen.format(game));
+        // A pawn move resets the clock
+        game.makeMove(EngineTestUtilities.move(2, 5, 4, 5));
+        Assertions.assertEquals("3k4/8/8/8/4P3/8/8/4K3 b - - 0 53", Fen.format(game));
+
+        game.unmakeMove();
+        game.unmakeMove();
+        Assertions.assertEquals(fen, Fen.format(game));
+    }
+
+    @Test
+    @DisplayName("En Passant Square")
+    public void enPassant() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(EngineTestUtilities.move(2, 5, 4, 5));
+        String fen = Fen.format(game);
+        // No black pawn can take e4 en passant, so no square is written
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", fen);
+        ChessGame parsed = Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        Assertions.assertEquals(new ChessPosition(4, 5), parsed.getEnPassantVulnerablePawn());
+        Assertions.assertEquals(game.getZobristKey(), parsed.getZobristKey());
+        Assertions.assertEquals(fen, Fen.format(parsed));
+
+        ChessGame white = Fen.parse("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2");
+        Assertions.assertEquals(new ChessPosition(5, 4), white.getEnPassantVulnerablePawn());
+        Assertions.assertEquals("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2", Fen.format(white));
+        Assertions.assertTrue(white.legalMoves(ChessGame.TeamColor.WHITE)
+                .contains(EngineTestUtilities.move(5, 5, 6, 4)));
+    }
+
+    @Test
+    @DisplayName("Loading Into An Existing Game")
+    public void loadInPlace() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(EngineTestUtilities.move(2, 4, 4, 4));
+        ChessBoard board = game.getBoard();
+
+        Fen.load(KIWIPETE, game);
+        Assertions.assertSame(board, game.getBoard());
+        Assertions.assertEquals(Fen.parse(KIWIPETE), game);
+        Assertions.assertEquals(Fen.parse(KIWIPETE).getZobristKey(), game.getZobristKey());
+        Assertions.assertThrows(IllegalStateException.class, game::unmakeMove);
+
+        Fen.load(Fen.START, game);
+        Assertions.assertEquals(new ChessGame().getZobristKey(), game.getZobristKey());
+        Assertions.assertEquals(20, game.legalMoves(ChessGame.TeamColor.WHITE).size());
+    }
+
+    @Test
+    @DisplayName("Malformed Records")
+    public void malformed() {
+        String[] bad = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQxq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KKq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e3 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - zero 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 99999999999 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR  w KQkq - 0 1"
+        };
+        for (String fen : bad) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse(fen), fen);
+        }
+    }
+
+    @Test
+    @DisplayName("Malformed Record Leaves The Game Unchanged")
+    public void malformedLoad() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(EngineTestUtilities.move(2, 5, 4, 5));
+        String before = Fen.format(game);
+        long key = game.getZobristKey();
+
+        // One record fails in the piece placement, the other only at its last field
+        for (String fen : new String[]{"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 x"}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.load(fen, game), fen);
+            Assertions.assertEquals(before, Fen.format(game));
+            Assertions.assertEquals(key, game.getZobristKey());
+        }
+
+        game.unmakeMove();
+        Assertions.assertEquals(new ChessGame(), game);
+        Assertions.assertEquals(new ChessGame().getZobristKey(), game.getZobristKey());
+    }
+}
@@ -0,0 +1,111 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class GameSnapshotTests {
+
+    @Test
+    @DisplayName("Snapshot Is Unaffected By Later Moves")
+    public void snapshotIsFrozen() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        GameSnapshot start = game.snapshot();
+
+        game.makeMove(EngineTestUtilities.move(2, 5, 4, 5));
+        game.makeMove(EngineTestUtilities.move(7, 5, 5, 5));
+        game.makeMove(EngineTestUtilities.move(1, 5, 2, 5));
+
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, start.getTeamTurn());
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                start.getPiece(new ChessPosition(2, 5)));
+        Assertions.assertNull(start.getPiece(new ChessPosition(4, 5)));
+        Assertions.assertEquals(ChessGame.WHITE_KINGSIDE | ChessGame.WHITE_QUEENSIDE
+                | ChessGame.BLACK_KINGSIDE | ChessGame.BLACK_QUEENSIDE, start.getCastlingRights());
+        Assertions.assertEquals(new ChessGame().getZobristKey(), start.getZobristKey());
+
+        GameSnapshot later = game.snapshot();
+        Assertions.assertNotEquals(start, later);
+        Assertions.assertEquals(ChessGame.BLACK_KINGSIDE | ChessGame.BLACK_QUEENSIDE, later.getCastlingRights());
+        Assertions.assertEquals(game.getZobristKey(), later.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Snapshot Is Reused Until The Position Changes")
+    public void snapshotReused() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        GameSnapshot first = game.snapshot();
+        Assertions.assertSame(first, game.snapshot());
+
+        game.makeMove(EngineTestUtilities.move(1, 7, 3, 6));
+        GameSnapshot second = game.snapshot();
+        Assertions.assertNotSame(first, second);
+
+        game.unmakeMove();
+        Assertions.assertEquals(first, game.snapshot());
+    }
+
+    @Test
+    @DisplayName("Copies From A Snapshot Are Independent")
+    public void copiesAreIndependent() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(EngineTestUtilities.move(2, 4, 4, 4));
+        GameSnapshot snapshot = game.snapshot();
+
+        ChessGame restored = snapshot.toGame();
+        Assertions.assertEquals(game.getZobristKey(), restored.getZobristKey());
+        // No black pawn can take d4 en passant, so the snapshot leaves it out
+        Assertions.assertNull(snapshot.getEnPassantVulnerablePawn());
+        Assertions.assertEquals(game.legalMoves(ChessGame.TeamColor.BLACK).size(),
+                restored.legalMoves(ChessGame.TeamColor.BLACK).size());
+
+        restored.makeMove(EngineTestUtilities.move(7, 5, 5, 5));
+        snapshot.toBoard().addPiece(new ChessPosition(4, 4), null);
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                snapshot.getPiece(new ChessPosition(4, 4)));
+        Assertions.assertNotNull(snapshot.getPiece(new ChessPosition(7, 5)));
+        Assertions.assertEquals(game.getZobristKey(), snapshot.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Readers See Consistent Snapshots While The Game Moves")
+    public void publishedWithoutLocks() throws InterruptedException, InvalidMoveException {
+        ChessGame game = new ChessGame();
+        AtomicReference<GameSnapshot> published = new AtomicReference<>(game.snapshot());
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < 20_000 && failure.get() == null; i++) {
+                GameSnapshot snapshot = published.get();
+                // Every position in the game keeps all 32 pieces, so a torn read would show
+                int pieces = 0;
+                for (int row = 1; row <= 8; row++) {
+                    for (int col = 1; col <= 8; col++) {
+                        if (snapshot.getPiece(new ChessPosition(row, col)) != null) {
+                            pieces++;
+                        }
+                    }
+                }
+                if (pieces != 32 || snapshot.toGame().getZobristKey() != snapshot.getZobristKey()) {
+                    failure.set("Inconsistent snapshot " + snapshot);
+                }
+            }
+        });
+        reader.start();
+
+        ChessMove[] knightShuffle = {
+                EngineTestUtilities.move(1, 7, 3, 6),
+                EngineTestUtilities.move(8, 7, 6, 6),
+                EngineTestUtilities.move(3, 6, 1, 7),
+                EngineTestUtilities.move(6, 6, 8, 7)
+        };
+        for (int i = 0; i < 2_000; i++) {
+            game.makeMove(knightShuffle[i & 3]);
+            published.set(game.snapshot());
+        }
+        reader.join();
+        Assertions.assertNull(failure.get());
+    }
+}
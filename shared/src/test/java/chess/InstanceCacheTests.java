@@ -0,0 +1,49 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class InstanceCacheTests {
+
+    @Test
+    @DisplayName("Positions Are Shared Per Square")
+    public void sharedPositions() {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = ChessPosition.of(row, col);
+                Assertions.assertSame(position, ChessPosition.of(row, col));
+                Assertions.assertEquals(new ChessPosition(row, col), position);
+                Assertions.assertSame(position, ChessPosition.of(Bitboards.square(row, col)));
+                Assertions.assertEquals(Bitboards.square(row, col), Bitboards.square(position));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Out Of Range Positions Are Rejected")
+    public void invalidPositions() {
+        int[][] bad = {{0, 1}, {1, 0}, {9, 1}, {1, 9}, {-1, 4}};
+        for (int[] rowCol : bad) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ChessPosition.of(rowCol[0], rowCol[1]));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessPosition.of(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessPosition.of(64));
+    }
+
+    @Test
+    @DisplayName("Pieces Are Shared Per Team And Type")
+    public void sharedPieces() {
+        int count = 0;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                ChessPiece piece = ChessPiece.of(color, type);
+                Assertions.assertSame(piece, ChessPiece.of(color, type));
+                Assertions.assertSame(piece, ChessPiece.of(piece.index()));
+                Assertions.assertEquals(new ChessPiece(color, type), piece);
+                count++;
+            }
+        }
+        Assertions.assertEquals(12, count);
+    }
+}
@@ -0,0 +1,95 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+public class KingSquareTests {
+    private static final ChessPiece WHITE_KING = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
+    private static final ChessPiece BLACK_ROOK = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+
+    @Test
+    @DisplayName("King Squares Follow King Moves, Castling And Undo")
+    public void followsMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(Bitboards.square(1, 5), game.getBoard().getKingSquare(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(Bitboards.square(8, 5), game.getBoard().getKingSquare(ChessGame.TeamColor.BLACK));
+
+        game.makeMove(EngineTestUtilities.move(2, 5, 4, 5));
+        game.makeMove(EngineTestUtilities.move(7, 5, 5, 5));
+        game.makeMove(EngineTestUtilities.move(1, 5, 2, 5));
+        Assertions.assertEquals(Bitboards.square(2, 5), game.getBoard().getKingSquare(ChessGame.TeamColor.WHITE));
+        game.unmakeMove();
+        Assertions.assertEquals(Bitboards.square(1, 5), game.getBoard().getKingSquare(ChessGame.TeamColor.WHITE));
+
+        ChessGame castling = EngineTestUtilities.gameWithBoard("""
+                |r| | | |k| | |r|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |R| | | |K| | |R|
+                """);
+        castling.makeMove(EngineTestUtilities.move(1, 5, 1, 7));
+        castling.makeMove(EngineTestUtilities.move(8, 5, 8, 3));
+        Assertions.assertEquals(Bitboards.square(1, 7), castling.getBoard().getKingSquare(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(Bitboards.square(8, 3), castling.getBoard().getKingSquare(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("King Squares Update When A King Is Captured Or Removed")
+    public void captureAndRemoval() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        int whiteKing = Bitboards.square(1, 5);
+
+        // A piece landing on the king's square replaces it
+        board.addPiece(whiteKing, BLACK_ROOK);
+        Assertions.assertEquals(-1, board.getKingSquare(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(Bitboards.square(8, 5), board.getKingSquare(ChessGame.TeamColor.BLACK));
+
+        board.addPiece(whiteKing, WHITE_KING);
+        Assertions.assertEquals(whiteKing, board.getKingSquare(ChessGame.TeamColor.WHITE));
+        board.addPiece(whiteKing, null);
+        Assertions.assertEquals(-1, board.getKingSquare(ChessGame.TeamColor.WHITE));
+
+        // With two kings of a team on a test board, removing one falls back to the other
+        board.addPiece(Bitboards.square(4, 4), WHITE_KING);
+        board.addPiece(Bitboards.square(4, 6), WHITE_KING);
+        board.addPiece(Bitboards.square(4, 6), null);
+        Assertions.assertEquals(Bitboards.square(4, 4), board.getKingSquare(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Attackers Of A Square, Including Through Cleared Blockers")
+    public void attackersTo() {
+        ChessBoard board = TestUtilities.loadBoard("""
+                | | | |r| | |k| |
+                | | | | | | | | |
+                | | | | | |b| | |
+                | | |p| | | | | |
+                | | | |K| | | | |
+                | | | | | | | | |
+                | | | | |n| | | |
+                | | | |P| | | | |
+                """);
+        int king = Bitboards.square(4, 4);
+        long expected = Bitboards.bit(Bitboards.square(5, 3)) | Bitboards.bit(Bitboards.square(2, 5))
+                | Bitboards.bit(Bitboards.square(6, 6)) | Bitboards.bit(Bitboards.square(8, 4));
+        Assertions.assertEquals(expected, board.attackersTo(king, ChessGame.TeamColor.BLACK, board.getOccupied()));
+        Assertions.assertTrue(board.isSquareAttacked(king, ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(0L, board.attackersTo(king, ChessGame.TeamColor.WHITE, board.getOccupied()));
+
+        // The rook's file is blocked until the blocker is left out of the occupancy
+        int rookSquare = Bitboards.square(8, 4);
+        int d2 = Bitboards.square(2, 4);
+        Assertions.assertEquals(0L, board.attackersTo(d2, ChessGame.TeamColor.BLACK, board.getOccupied())
+                & Bitboards.bit(rookSquare));
+        long withoutKing = board.getOccupied() & ~Bitboards.bit(king);
+        Assertions.assertNotEquals(0L, board.attackersTo(d2, ChessGame.TeamColor.BLACK, withoutKing)
+                & Bitboards.bit(rookSquare));
+    }
+}
@@ -0,0 +1,107 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+public class LegalMovesTests {
+
+    @Test
+    @DisplayName("Counts From Well Known Positions")
+    public void knownCounts() {
+        assertMatchesValidMoves(new ChessGame(), ChessGame.TeamColor.WHITE, 20);
+        assertMatchesValidMoves(new ChessGame(), ChessGame.TeamColor.BLACK, 20);
+        assertMatchesValidMoves(EngineTestUtilities.gameWithBoard("""
+                |r| | | |k| | |r|
+                |p| |p|p|q|p|b| |
+                |b|n| | |p|n|p| |
+                | | | |P|N| | | |
+                | |p| | |P| | | |
+                | | |N| | |Q| |p|
+                |P|P|P|B|B|P|P|P|
+                |R| | | |K| | |R|
+                """), ChessGame.TeamColor.WHITE, 48);
+    }
+
+    @Test
+    @DisplayName("Pinned Pieces Only Move Along The Pin")
+    public void pins() {
+        // Rook pinned on the file, bishop on one diagonal, knight on the other
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                |k| | | |r| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |b| | | | | | | |
+                | | | | |R| | |b|
+                | | |B| | | | | |
+                | | | | | |N| | |
+                | | | | |K| | | |
+                """);
+        Collection<ChessMove> moves = assertMatchesValidMoves(game, ChessGame.TeamColor.WHITE, 13);
+        Assertions.assertEquals(6, countFrom(moves, 4, 5), "pinned rook");
+        Assertions.assertEquals(3, countFrom(moves, 3, 3), "pinned bishop");
+        Assertions.assertEquals(0, countFrom(moves, 2, 6), "pinned knight");
+        Assertions.assertEquals(4, countFrom(moves, 1, 5), "king");
+    }
+
+    @Test
+    @DisplayName("En Passant That Uncovers A Check Along The Rank Is Left Out")
+    public void enPassantDiscoveredCheck() {
+        String board = """
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |K| | |p|P| | |r|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | |k|
+                """;
+        ChessMove enPassant = EngineTestUtilities.move(5, 5, 6, 4);
+
+        // Taking removes both pawns from the rank, exposing the king to the rook
+        ChessGame pinned = EngineTestUtilities.gameWithBoard(board);
+        pinned.setEnPassantVulnerablePawn(new ChessPosition(5, 4));
+        Collection<ChessMove> moves = assertMatchesValidMoves(pinned, ChessGame.TeamColor.WHITE, 6);
+        Assertions.assertFalse(moves.contains(enPassant));
+
+        ChessGame free = EngineTestUtilities.gameWithBoard(board.replace("|r|", "| |"));
+        free.setEnPassantVulnerablePawn(new ChessPosition(5, 4));
+        moves = assertMatchesValidMoves(free, ChessGame.TeamColor.WHITE, 7);
+        Assertions.assertTrue(moves.contains(enPassant));
+    }
+
+    /**
+     * Checks the one-pass generator against validMoves for every square of the team
+     */
+    private static Collection<ChessMove> assertMatchesValidMoves(ChessGame game, ChessGame.TeamColor team,
+                                                                 int expected) {
+        Collection<ChessMove> moves = game.legalMoves(team);
+        Assertions.assertEquals(expected, moves.size());
+
+        Set<ChessMove> perPiece = new HashSet<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = game.getBoard().getPiece(new ChessPosition(row, col));
+                if (piece != null && piece.getTeamColor() == team) {
+                    perPiece.addAll(game.validMoves(new ChessPosition(row, col)));
+                }
+            }
+        }
+        Assertions.assertEquals(perPiece, new HashSet<>(moves));
+
+        MoveList buffer = new MoveList();
+        game.generateLegalMoves(team, buffer);
+        Assertions.assertEquals(expected, buffer.size());
+        return moves;
+    }
+
+    private static int countFrom(Collection<ChessMove> moves, int row, int col) {
+        ChessPosition start = new ChessPosition(row, col);
+        return (int) moves.stream().filter(move -> move.getStartPosition().equals(start)).count();
+    }
+}
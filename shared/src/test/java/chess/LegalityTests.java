@@ -0,0 +1,79 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the single-move legality test against full legal move generation for
+ * every start square, end square and promotion choice in many positions
+ */
+public class LegalityTests {
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            null, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.KING, ChessPiece.PieceType.PAWN
+    };
+
+    @Test
+    @DisplayName("Matches Generation From The Start Position")
+    public void startPosition() {
+        checkTree(new ChessGame(), 3);
+    }
+
+    @Test
+    @DisplayName("Matches Generation With Castling, Pins And Promotions")
+    public void kiwipete() {
+        checkTree(EngineTestUtilities.gameWithBoard("""
+                |r| | | |k| | |r|
+                |p| |p|p|q|p|b| |
+                |b|n| | |p|n|p| |
+                | | | |P|N| | | |
+                | |p| | |P| | | |
+                | | |N| | |Q| |p|
+                |P|P|P|B|B|P|P|P|
+                |R| | | |K| | |R|
+                """), 2);
+    }
+
+    @Test
+    @DisplayName("Matches Generation With En Passant Pins")
+    public void position3() {
+        checkTree(EngineTestUtilities.gameWithBoard("""
+                | | | | | | | | |
+                | | |p| | | | | |
+                | | | |p| | | | |
+                |K|P| | | | | |r|
+                | |R| | | |p| |k|
+                | | | | | | | | |
+                | | | | |P| |P| |
+                | | | | | | | | |
+                """), 4);
+    }
+
+    private static void checkTree(ChessGame game, int depth) {
+        ChessGame.TeamColor team = game.getTeamTurn();
+        MoveList legal = new MoveList();
+        game.generateLegalMoves(team, legal);
+
+        long own = game.getBoard().getTeamBitboard(team);
+        for (int start = 0; start < 64; start++) {
+            if ((own & Bitboards.bit(start)) == 0) {
+                continue;
+            }
+            for (int end = 0; end < 64; end++) {
+                for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                    ChessMove move = new ChessMove(ChessPosition.of(start), ChessPosition.of(end), promotion);
+                    Assertions.assertEquals(legal.contains(Move.encode(move)), game.isLegal(move), move.toString());
+                }
+            }
+        }
+
+        if (depth > 1) {
+            for (int i = 0; i < legal.size(); i++) {
+                game.makeMove(legal.get(i));
+                checkTree(game, depth - 1);
+                game.unmakeMove();
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+public class MateDetectionTests {
+
+    @Test
+    @DisplayName("Only Escape Is A King Move")
+    public void kingMoveEscape() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                | | | | |r| |k| |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |P| |P| | |
+                | | | | |K| | | |
+                """);
+        assertOnlyEscapes(game, EngineTestUtilities.move(1, 5, 1, 4), EngineTestUtilities.move(1, 5, 1, 6));
+    }
+
+    @Test
+    @DisplayName("Only Escape Is Capturing The Checking Piece")
+    public void captureEscape() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                |k| | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |n|P|P|
+                | | | | | |Q|R|K|
+                """);
+        assertOnlyEscapes(game, EngineTestUtilities.move(1, 6, 2, 6));
+    }
+
+    @Test
+    @DisplayName("Only Escape Is Blocking The Check")
+    public void blockEscape() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                |k| | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |N| | | |
+                | | | | | | |P|P|
+                |r| | | | | | |K|
+                """);
+        assertOnlyEscapes(game, EngineTestUtilities.move(3, 5, 1, 4), EngineTestUtilities.move(3, 5, 1, 6));
+    }
+
+    @Test
+    @DisplayName("Back Rank Checkmate")
+    public void checkmate() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                |k| | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | |P|P|
+                |r| | | | | | |K|
+                """);
+        Assertions.assertFalse(game.hasAnyLegalMove(ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(game.isInStalemate(ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(game.hasAnyLegalMove(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Stalemate With The King Boxed In")
+    public void stalemate() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                |k| | | | | | | |
+                | | |Q| | | | | |
+                | |K| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """, ChessGame.TeamColor.BLACK);
+        Assertions.assertFalse(game.isInCheck(ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(game.hasAnyLegalMove(ChessGame.TeamColor.BLACK));
+        Assertions.assertTrue(game.isInStalemate(ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+    }
+
+    /**
+     * Checks that white is in check, the early-exit probe still finds a move,
+     * and the listed moves are exactly the legal ones
+     */
+    private static void assertOnlyEscapes(ChessGame game, ChessMove... escapes) {
+        Assertions.assertTrue(game.isInCheck(ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(game.hasAnyLegalMove(ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(game.isInStalemate(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(Set.copyOf(List.of(escapes)), Set.copyOf(game.legalMoves(ChessGame.TeamColor.WHITE)));
+    }
+}
@@ -0,0 +1,115 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MoveOrderingTests {
+    private static final String BOARD = """
+            | | | | |k| | | |
+            | | | | | | | | |
+            | | | |q| | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | |R| | |p| |
+            | | | | | | | | |
+            | | | | |K| | |N|
+            """;
+    // Quiet white moves in BOARD, which also has three captures
+    private static final int ROOK_TO_A3 = Move.encode(Bitboards.square(3, 4), Bitboards.square(3, 1), null, 0);
+    private static final int KING_TO_F1 = Move.encode(Bitboards.square(1, 5), Bitboards.square(1, 6), null, 0);
+    private static final int KNIGHT_TO_F2 = Move.encode(Bitboards.square(1, 8), Bitboards.square(2, 6), null, 0);
+    private static final int ROOK_TO_D1 = Move.encode(Bitboards.square(3, 4), Bitboards.square(1, 4), null, 0);
+
+    @Test
+    @DisplayName("Hash Move, Then Captures By Victim, Then Killers")
+    public void ordersByCategory() {
+        MoveList moves = whiteMoves();
+
+        int hashMove = Move.encode(Bitboards.square(1, 5), Bitboards.square(2, 5), null, 0);
+        int takeQueen = Move.encode(Bitboards.square(3, 4), Bitboards.square(6, 4), null, Move.CAPTURE);
+        int knightTakesPawn = Move.encode(Bitboards.square(1, 8), Bitboards.square(3, 7), null, Move.CAPTURE);
+        int rookTakesPawn = Move.encode(Bitboards.square(3, 4), Bitboards.square(3, 7), null, Move.CAPTURE);
+        int killer = Move.encode(Bitboards.square(3, 4), Bitboards.square(3, 1), null, 0);
+
+        MoveOrdering ordering = new MoveOrdering(8);
+        ordering.recordCutoff(killer, ChessGame.TeamColor.WHITE, 3, 2);
+        ordering.order(EngineTestUtilities.gameWithBoard(BOARD).getBoard(), moves, hashMove, 2);
+
+        Assertions.assertEquals(hashMove, moves.get(0));
+        Assertions.assertEquals(takeQueen, moves.get(1));
+        Assertions.assertEquals(knightTakesPawn, moves.get(2), "The cheaper attacker should take first");
+        Assertions.assertEquals(rookTakesPawn, moves.get(3));
+        Assertions.assertEquals(killer, moves.get(4));
+    }
+
+    @Test
+    @DisplayName("Quiet Moves That Are Not Killers Follow Their History")
+    public void ordersQuietMovesByHistory() {
+        MoveOrdering ordering = new MoveOrdering(8);
+        // Cutoffs at another ply leave this ply without killers
+        ordering.recordCutoff(KNIGHT_TO_F2, ChessGame.TeamColor.WHITE, 2, 5);
+        ordering.recordCutoff(ROOK_TO_A3, ChessGame.TeamColor.WHITE, 4, 5);
+        ordering.recordCutoff(KING_TO_F1, ChessGame.TeamColor.WHITE, 3, 6);
+
+        MoveList moves = whiteMoves();
+        ordering.order(EngineTestUtilities.gameWithBoard(BOARD).getBoard(), moves, Move.NONE, 2);
+        Assertions.assertTrue(Move.isCapture(moves.get(2)));
+        Assertions.assertEquals(ROOK_TO_A3, moves.get(3));
+        Assertions.assertEquals(KING_TO_F1, moves.get(4));
+        Assertions.assertEquals(KNIGHT_TO_F2, moves.get(5));
+    }
+
+    @Test
+    @DisplayName("Two Killers Per Ply, The Older Replaced By A Third Cutoff")
+    public void twoKillerSlots() {
+        ChessBoard board = EngineTestUtilities.gameWithBoard(BOARD).getBoard();
+        MoveOrdering ordering = new MoveOrdering(8);
+        ordering.recordCutoff(ROOK_TO_A3, ChessGame.TeamColor.WHITE, 1, 2);
+        ordering.recordCutoff(KING_TO_F1, ChessGame.TeamColor.WHITE, 1, 2);
+
+        MoveList moves = whiteMoves();
+        ordering.order(board, moves, Move.NONE, 2);
+        Assertions.assertEquals(KING_TO_F1, moves.get(3), "The newest killer comes first");
+        Assertions.assertEquals(ROOK_TO_A3, moves.get(4));
+
+        // A repeated cutoff by the first killer leaves both slots as they are
+        ordering.recordCutoff(KING_TO_F1, ChessGame.TeamColor.WHITE, 1, 2);
+        ordering.recordCutoff(ROOK_TO_D1, ChessGame.TeamColor.WHITE, 1, 2);
+        moves = whiteMoves();
+        ordering.order(board, moves, Move.NONE, 2);
+        Assertions.assertEquals(ROOK_TO_D1, moves.get(3));
+        Assertions.assertEquals(KING_TO_F1, moves.get(4));
+        // The oldest killer lost its slot and is left with its history score
+        Assertions.assertEquals(ROOK_TO_A3, moves.get(5));
+    }
+
+    @Test
+    @DisplayName("A New Search Drops Killers And Ages History Without Wiping It")
+    public void newSearchAgesHistory() {
+        ChessBoard board = EngineTestUtilities.gameWithBoard(BOARD).getBoard();
+        MoveOrdering ordering = new MoveOrdering(8);
+        ordering.recordCutoff(ROOK_TO_A3, ChessGame.TeamColor.WHITE, 4, 2);
+        ordering.recordCutoff(KING_TO_F1, ChessGame.TeamColor.WHITE, 2, 2);
+        ordering.newSearch();
+
+        // Were the killers kept, the king move would still come first
+        MoveList moves = whiteMoves();
+        ordering.order(board, moves, Move.NONE, 2);
+        Assertions.assertEquals(ROOK_TO_A3, moves.get(3));
+        Assertions.assertEquals(KING_TO_F1, moves.get(4));
+
+        // Halving twice more still leaves the bigger score ahead of unrecorded moves
+        ordering.newSearch();
+        ordering.newSearch();
+        moves = whiteMoves();
+        ordering.order(board, moves, Move.NONE, 2);
+        Assertions.assertEquals(ROOK_TO_A3, moves.get(3));
+    }
+
+    private static MoveList whiteMoves() {
+        MoveList moves = new MoveList();
+        EngineTestUtilities.gameWithBoard(BOARD).generateLegalMoves(ChessGame.TeamColor.WHITE, moves);
+        return moves;
+    }
+}
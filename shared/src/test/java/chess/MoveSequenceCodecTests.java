@@ -0,0 +1,100 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class MoveSequenceCodecTests {
+
+    @Test
+    @DisplayName("Round Trips A Game With Special Moves")
+    public void roundTrip() {
+        // Castling both ways, en passant and an underpromotion
+        ChessGame start = Fen.parse("r3k2r/1P6/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1");
+        List<ChessMove> moves = List.of(
+                EngineTestUtilities.move(5, 5, 6, 4, null),
+                EngineTestUtilities.move(8, 5, 8, 7, null),
+                EngineTestUtilities.move(1, 5, 1, 3, null),
+                EngineTestUtilities.move(8, 6, 8, 5, null),
+                EngineTestUtilities.move(7, 2, 8, 1, ChessPiece.PieceType.KNIGHT));
+
+        byte[] encoded = MoveSequenceCodec.encode(start, moves);
+        Assertions.assertEquals(moves.size(), encoded.length);
+        Assertions.assertEquals(Fen.parse("r3k2r/1P6/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1"), start,
+                "Encoding should not touch the starting game");
+
+        ChessGame replay = new ChessGame(start);
+        Assertions.assertEquals(moves, MoveSequenceCodec.decode(replay, encoded));
+        Assertions.assertEquals("N3r1k1/8/3P4/8/8/8/8/2KR3R b - - 0 3", Fen.format(replay));
+    }
+
+    @Test
+    @DisplayName("Round Trips Long Random Games")
+    public void randomGames() {
+        Random random = new Random(57);
+        MoveList legal = new MoveList();
+        for (int game = 0; game < 20; game++) {
+            ChessGame played = new ChessGame();
+            List<ChessMove> moves = new ArrayList<>();
+            for (int ply = 0; ply < 200; ply++) {
+                legal.clear();
+                played.generateLegalMoves(played.getTeamTurn(), legal);
+                if (legal.isEmpty()) {
+                    break;
+                }
+                int move = legal.get(random.nextInt(legal.size()));
+                moves.add(Move.toChessMove(move));
+                played.makeMove(move);
+            }
+
+            byte[] encoded = MoveSequenceCodec.encode(new ChessGame(), moves);
+            Assertions.assertEquals(moves.size(), encoded.length);
+            ChessGame replay = new ChessGame();
+            Assertions.assertEquals(moves, MoveSequenceCodec.decode(replay, encoded));
+            Assertions.assertEquals(played.getZobristKey(), replay.getZobristKey());
+        }
+    }
+
+    @Test
+    @DisplayName("Indices Are Pinned To The Wire Order")
+    public void pinnedIndices() {
+        // Archived games depend on these never changing: start square, then end square, then promotion
+        Assertions.assertEquals(1, index(new ChessGame(), EngineTestUtilities.move(1, 2, 3, 3)));
+        Assertions.assertEquals(2, index(new ChessGame(), EngineTestUtilities.move(1, 7, 3, 6)));
+        Assertions.assertEquals(12, index(new ChessGame(), EngineTestUtilities.move(2, 5, 3, 5)));
+        Assertions.assertEquals(13, index(new ChessGame(), EngineTestUtilities.move(2, 5, 4, 5)));
+        Assertions.assertEquals(19, index(new ChessGame(), EngineTestUtilities.move(2, 8, 4, 8)));
+        Assertions.assertEquals(List.of(EngineTestUtilities.move(2, 5, 4, 5)),
+                MoveSequenceCodec.decode(new ChessGame(), new byte[]{13}));
+
+        // Captures and quiet moves sort together, and promotions by piece type
+        ChessGame promotions = Fen.parse("r3k3/1P6/8/8/8/8/8/4K3 w - - 0 1");
+        Assertions.assertEquals(0, index(promotions, EngineTestUtilities.move(1, 5, 1, 4)));
+        Assertions.assertEquals(4, index(promotions, EngineTestUtilities.move(1, 5, 2, 6)));
+        Assertions.assertEquals(5, index(promotions,
+                EngineTestUtilities.move(7, 2, 8, 1, ChessPiece.PieceType.QUEEN)));
+        Assertions.assertEquals(7, index(promotions,
+                EngineTestUtilities.move(7, 2, 8, 1, ChessPiece.PieceType.KNIGHT)));
+        Assertions.assertEquals(12, index(promotions,
+                EngineTestUtilities.move(7, 2, 8, 2, ChessPiece.PieceType.ROOK)));
+    }
+
+    @Test
+    @DisplayName("Rejects Illegal Moves And Indices")
+    public void invalid() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> MoveSequenceCodec.encode(new ChessGame(), List.of(EngineTestUtilities.move(2, 5, 5, 5))));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> MoveSequenceCodec.decode(new ChessGame(), new byte[]{20}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> MoveSequenceCodec.decode(new ChessGame(), new byte[]{(byte) 200}));
+    }
+
+    private static int index(ChessGame game, ChessMove move) {
+        return MoveSequenceCodec.encode(game, List.of(move))[0];
+    }
+}
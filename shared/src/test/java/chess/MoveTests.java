@@ -0,0 +1,83 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class MoveTests {
+
+    @Test
+    @DisplayName("Encode And Decode Round Trip For Every Flag And Promotion")
+    public void roundTrip() {
+        ChessPiece.PieceType[] promotions = new ChessPiece.PieceType[ChessPiece.PieceType.values().length + 1];
+        System.arraycopy(ChessPiece.PieceType.values(), 0, promotions, 1, promotions.length - 1);
+
+        for (int start = 0; start < 64; start++) {
+            for (int end = 0; end < 64; end += 7) {
+                for (ChessPiece.PieceType promotion : promotions) {
+                    // Every combination of CAPTURE, EN_PASSANT, CASTLING and DOUBLE_PUSH
+                    for (int flags = 0; flags < 16; flags++) {
+                        int move = Move.encode(start, end, promotion, flags);
+                        Assertions.assertEquals(start, Move.start(move));
+                        Assertions.assertEquals(end, Move.end(move));
+                        Assertions.assertEquals(promotion, Move.promotion(move));
+                        Assertions.assertEquals(flags, Move.flags(move));
+                        Assertions.assertEquals((flags & (Move.CAPTURE | Move.EN_PASSANT)) != 0, Move.isCapture(move));
+                        Assertions.assertEquals(Move.encode(start, end, promotion, 0), Move.withoutFlags(move));
+                        if (start != end) {
+                            Assertions.assertNotEquals(Move.NONE, move);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Converts To And From ChessMove")
+    public void chessMoveConversion() {
+        ChessMove[] moves = {
+                EngineTestUtilities.move(2, 5, 4, 5),
+                EngineTestUtilities.move(1, 1, 8, 8),
+                EngineTestUtilities.move(8, 8, 1, 1),
+                EngineTestUtilities.move(7, 2, 8, 1, ChessPiece.PieceType.KNIGHT),
+                EngineTestUtilities.move(2, 7, 1, 7, ChessPiece.PieceType.QUEEN)
+        };
+        for (ChessMove move : moves) {
+            int packed = Move.encode(move);
+            Assertions.assertEquals(0, Move.flags(packed));
+            Assertions.assertEquals(move, Move.toChessMove(packed));
+            Assertions.assertEquals(move, Move.toChessMove(packed | Move.CAPTURE << 15));
+        }
+    }
+
+    @Test
+    @DisplayName("MoveList Grows, Truncates And Ignores Flags In Contains")
+    public void moveList() {
+        MoveList moves = new MoveList(2);
+        for (int end = 1; end < 64; end++) {
+            moves.add(Move.encode(0, end, null, end % 2 == 0 ? Move.CAPTURE : 0));
+        }
+        Assertions.assertEquals(63, moves.size());
+        Assertions.assertEquals(Move.encode(0, 10, null, Move.CAPTURE), moves.get(9));
+        Assertions.assertTrue(moves.contains(Move.encode(0, 10, null, 0)));
+        Assertions.assertFalse(moves.contains(Move.encode(0, 10, ChessPiece.PieceType.QUEEN, 0)));
+
+        moves.truncate(3);
+        Assertions.assertFalse(moves.contains(Move.encode(0, 10, null, 0)));
+        Assertions.assertEquals(List.of(EngineTestUtilities.move(1, 1, 1, 2), EngineTestUtilities.move(1, 1, 1, 3),
+                EngineTestUtilities.move(1, 1, 1, 4)), moves.toChessMoves());
+
+        moves.clear();
+        Assertions.assertTrue(moves.isEmpty());
+        Assertions.assertFalse(moves.contains(Move.encode(0, 1, null, 0)));
+
+        MoveList empty = new MoveList(0);
+        empty.add(Move.encode(0, 1, null, 0));
+        empty.add(Move.encode(0, 2, null, 0));
+        Assertions.assertEquals(2, empty.size());
+        Assertions.assertEquals(Move.encode(0, 2, null, 0), empty.get(1));
+    }
+}
@@ -0,0 +1,107 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+/**
+ * Compares leaf counts against the published perft results for standard positions
+ */
+public class PerftTests {
+
+    @Test
+    @DisplayName("Start Position")
+    public void startPosition() {
+        ChessGame game = new ChessGame();
+        Perft perft = new Perft();
+        Assertions.assertEquals(20, perft.count(game, 1));
+        Assertions.assertEquals(400, perft.count(game, 2));
+        Assertions.assertEquals(8902, perft.count(game, 3));
+        Assertions.assertEquals(197281, perft.count(game, 4));
+        Assertions.assertEquals(new ChessGame(), game, "Perft should leave the game unchanged");
+    }
+
+    @Test
+    @DisplayName("Kiwipete")
+    public void kiwipete() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                |r| | | |k| | |r|
+                |p| |p|p|q|p|b| |
+                |b|n| | |p|n|p| |
+                | | | |P|N| | | |
+                | |p| | |P| | | |
+                | | |N| | |Q| |p|
+                |P|P|P|B|B|P|P|P|
+                |R| | | |K| | |R|
+                """);
+        Perft perft = new Perft();
+        Assertions.assertEquals(48, perft.count(game, 1));
+        Assertions.assertEquals(2039, perft.count(game, 2));
+        Assertions.assertEquals(97862, perft.count(game, 3));
+    }
+
+    @Test
+    @DisplayName("Endgame With En Passant Pins")
+    public void position3() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                | | | | | | | | |
+                | | |p| | | | | |
+                | | | |p| | | | |
+                |K|P| | | | | |r|
+                | |R| | | |p| |k|
+                | | | | | | | | |
+                | | | | |P| |P| |
+                | | | | | | | | |
+                """);
+        Perft perft = new Perft();
+        Assertions.assertEquals(14, perft.count(game, 1));
+        Assertions.assertEquals(191, perft.count(game, 2));
+        Assertions.assertEquals(2812, perft.count(game, 3));
+        Assertions.assertEquals(43238, perft.count(game, 4));
+    }
+
+    @Test
+    @DisplayName("Divide Sums To Count")
+    public void divideSumsToCount() {
+        ChessGame game = new ChessGame();
+        Map<ChessMove, Long> divided = new Perft().divide(game, 3);
+        Assertions.assertEquals(20, divided.size());
+        Assertions.assertEquals(8902L, divided.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    @DisplayName("Cached Count Matches Uncached")
+    public void cachedCountMatches() {
+        PerftCache cache = new PerftCache(1);
+        Perft perft = new Perft(cache);
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(197281, perft.count(game, 4));
+        // The second run is answered mostly from the table
+        Assertions.assertEquals(197281, perft.count(game, 4));
+        Assertions.assertEquals(4865609, perft.count(game, 5));
+        Assertions.assertEquals(new ChessGame(), game, "Perft should leave the game unchanged");
+    }
+
+    @Test
+    @DisplayName("Parallel Count Matches Single Threaded")
+    public void parallelMatchesSerial() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                |r| | | |k| | |r|
+                |p| |p|p|q|p|b| |
+                |b|n| | |p|n|p| |
+                | | | |P|N| | | |
+                | |p| | |P| | | |
+                | | |N| | |Q| |p|
+                |P|P|P|B|B|P|P|P|
+                |R| | | |K| | |R|
+                """);
+        ChessGame before = new ChessGame(game);
+        ParallelPerft parallel = new ParallelPerft();
+        Assertions.assertEquals(48, parallel.count(game, 1));
+        Assertions.assertEquals(2039, parallel.count(game, 2));
+        Assertions.assertEquals(97862, parallel.count(game, 3));
+        Assertions.assertEquals(before, game, "Parallel perft should not touch the game it was given");
+    }
+}
@@ -0,0 +1,111 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PonderingBotTests {
+
+    @Test
+    @DisplayName("Ponder Hit Keeps The Running Search")
+    public void ponderHit() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        TranspositionTable table = new TranspositionTable(16);
+        CountingSearch search = new CountingSearch(table);
+        try (PonderingBot bot = new PonderingBot(table, search)) {
+            ChessMove first = bot.chooseMove(game, 100);
+            Assertions.assertTrue(game.validMoves(first.getStartPosition()).contains(first));
+            Assertions.assertTrue(bot.isPondering());
+            Assertions.assertEquals(1, search.moveSearches.get());
+
+            // The opponent plays the expected reply
+            game.makeMove(first);
+            ChessMove reply = bot.getPonderMove();
+            Assertions.assertTrue(game.validMoves(reply.getStartPosition()).contains(reply));
+            game.makeMove(reply);
+            Assertions.assertEquals(reply, bot.getPonderMove());
+
+            ChessMove second = bot.chooseMove(game, 100);
+            Assertions.assertTrue(game.validMoves(second.getStartPosition()).contains(second));
+            // The move came from the ponder search, not a new one on this thread
+            Assertions.assertEquals(1, search.moveSearches.get());
+            Assertions.assertTrue(search.ponderSearches.get() >= 1);
+            Assertions.assertTrue(bot.isPondering());
+        }
+    }
+
+    @Test
+    @DisplayName("Ponder Hit After A Long Ponder Replies At Once")
+    public void ponderHitCountsPonderTime() throws InvalidMoveException, InterruptedException {
+        ChessGame game = new ChessGame();
+        TranspositionTable table = new TranspositionTable(16);
+        CountingSearch search = new CountingSearch(table);
+        try (PonderingBot bot = new PonderingBot(table, search)) {
+            game.makeMove(bot.chooseMove(game, 100));
+            game.makeMove(bot.getPonderMove());
+            // The opponent thinks for longer than the bot's whole budget
+            Thread.sleep(1200);
+
+            long start = System.nanoTime();
+            ChessMove move = bot.chooseMove(game, 1000);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+            Assertions.assertTrue(game.validMoves(move.getStartPosition()).contains(move));
+            Assertions.assertEquals(1, search.moveSearches.get());
+            Assertions.assertTrue(elapsedMillis < 300, "Ponder hit took " + elapsedMillis + " ms of a 1000 ms budget");
+        }
+    }
+
+    @Test
+    @DisplayName("Ponder Miss Stops Pondering And Searches Afresh")
+    public void ponderMiss() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        TranspositionTable table = new TranspositionTable(16);
+        CountingSearch search = new CountingSearch(table);
+        try (PonderingBot bot = new PonderingBot(table, search)) {
+            ChessMove first = bot.chooseMove(game, 100);
+            game.makeMove(first);
+            ChessMove expected = bot.getPonderMove();
+            Assertions.assertNotNull(expected);
+
+            ChessMove unexpected = game.legalMoves(game.getTeamTurn()).stream()
+                    .filter(move -> !move.equals(expected))
+                    .findFirst().orElseThrow();
+            game.makeMove(unexpected);
+            ChessMove second = bot.chooseMove(game, 100);
+            Assertions.assertTrue(game.validMoves(second.getStartPosition()).contains(second));
+            Assertions.assertEquals(2, search.moveSearches.get());
+            Assertions.assertTrue(bot.isPondering());
+        }
+    }
+
+    @Test
+    @DisplayName("Stops Pondering When Closed")
+    public void closeStopsPondering() {
+        PonderingBot bot = new PonderingBot(1);
+        bot.chooseMove(new ChessGame(), 50);
+        bot.close();
+        Assertions.assertFalse(bot.isPondering());
+    }
+
+    // Counts searches by the thread they run on, to tell a kept ponder search from a fresh one
+    private static class CountingSearch extends Search {
+        final AtomicInteger moveSearches = new AtomicInteger();
+        final AtomicInteger ponderSearches = new AtomicInteger();
+
+        CountingSearch(TranspositionTable table) {
+            super(table);
+        }
+
+        @Override
+        int search(ChessGame position, int maxDepth, int firstDepth) {
+            if (Thread.currentThread().getName().equals("bot-ponder")) {
+                ponderSearches.incrementAndGet();
+            } else {
+                moveSearches.incrementAndGet();
+            }
+            return super.search(position, maxDepth, firstDepth);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class PositionCodecTests {
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+
+    @Test
+    @DisplayName("Round Trips Every Position In A Search Tree")
+    public void roundTrips() {
+        ChessGame decoded = new ChessGame();
+        ByteBuffer buffer = ByteBuffer.allocate(PositionCodec.SIZE);
+        checkTree(new ChessGame(), 3, buffer, decoded);
+        checkTree(Fen.parse(KIWIPETE), 2, buffer, decoded);
+        checkTree(Fen.parse(POSITION_3), 3, buffer, decoded);
+    }
+
+    @Test
+    @DisplayName("Start Position Layout")
+    public void startLayout() {
+        byte[] bytes = PositionCodec.encode(new ChessGame());
+        Assertions.assertEquals(PositionCodec.SIZE, bytes.length);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Assertions.assertEquals(0xFFFF00000000FFFFL, buffer.getLong());
+        // White rook and knight on a1 and b1, by ChessPiece.index()
+        Assertions.assertEquals((byte) 0x43, buffer.get());
+        Assertions.assertEquals(ChessGame.WHITE_KINGSIDE | ChessGame.WHITE_QUEENSIDE
+                | ChessGame.BLACK_KINGSIDE | ChessGame.BLACK_QUEENSIDE, bytes[24]);
+        Assertions.assertEquals(0, bytes[25]);
+        Assertions.assertEquals(new ChessGame(), PositionCodec.decode(bytes));
+    }
+
+    @Test
+    @DisplayName("Positions Pack Back To Back In Either Byte Order")
+    public void sharedBuffer() {
+        ChessGame first = Fen.parse(KIWIPETE);
+        ChessGame second = Fen.parse("4k3/8/8/8/2Pp4/8/8/4K3 b - c3 0 1");
+
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            ByteBuffer buffer = ByteBuffer.allocate(2 * PositionCodec.SIZE + 1).order(order);
+            buffer.put((byte) 7);
+            PositionCodec.encode(first, buffer);
+            PositionCodec.encode(second, buffer);
+            Assertions.assertEquals(buffer.capacity(), buffer.position());
+
+            buffer.flip().get();
+            ChessGame decoded = new ChessGame();
+            PositionCodec.decode(buffer, decoded);
+            Assertions.assertEquals(first.getZobristKey(), decoded.getZobristKey());
+            PositionCodec.decode(buffer, decoded);
+            Assertions.assertEquals(second.getZobristKey(), decoded.getZobristKey());
+            Assertions.assertEquals(new ChessPosition(4, 3), decoded.getEnPassantVulnerablePawn());
+            Assertions.assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    @DisplayName("Rejects Invalid Bytes")
+    public void invalid() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> PositionCodec.decode(new byte[PositionCodec.SIZE - 1]));
+
+        byte[] badPiece = PositionCodec.encode(new ChessGame());
+        badPiece[8] = (byte) 0xC0;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PositionCodec.decode(badPiece));
+
+        byte[] badState = PositionCodec.encode(new ChessGame());
+        badState[25] = 9;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PositionCodec.decode(badState));
+
+        byte[] tooMany = PositionCodec.encode(new ChessGame());
+        tooMany[3] = 1;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PositionCodec.decode(tooMany));
+    }
+
+    @Test
+    @DisplayName("Invalid Bytes Leave The Game Unchanged")
+    public void invalidDecodeInPlace() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(EngineTestUtilities.move(2, 5, 4, 5));
+        String before = Fen.format(game);
+        long key = game.getZobristKey();
+
+        // Only the last piece's code is bad, so every other piece would already be placed
+        byte[] badLastPiece = PositionCodec.encode(new ChessGame());
+        badLastPiece[23] = (byte) (badLastPiece[23] & 0xF0 | 12);
+        byte[] badState = PositionCodec.encode(new ChessGame());
+        badState[24] = (byte) 0x80;
+        for (byte[] bytes : new byte[][]{badLastPiece, badState}) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> PositionCodec.decode(buffer, game));
+            Assertions.assertEquals(0, buffer.position());
+            Assertions.assertEquals(before, Fen.format(game));
+            Assertions.assertEquals(key, game.getZobristKey());
+        }
+
+        game.unmakeMove();
+        Assertions.assertEquals(new ChessGame(), game);
+    }
+
+    private static void checkTree(ChessGame game, int depth, ByteBuffer buffer, ChessGame decoded) {
+        buffer.clear();
+        PositionCodec.encode(game, buffer);
+        Assertions.assertEquals(PositionCodec.SIZE, buffer.position());
+        buffer.flip();
+        PositionCodec.decode(buffer, decoded);
+        Assertions.assertEquals(game.getBoard(), decoded.getBoard());
+        Assertions.assertEquals(game.getZobristKey(), decoded.getZobristKey());
+        Assertions.assertEquals(game.getTeamTurn(), decoded.getTeamTurn());
+        Assertions.assertEquals(game.getCastlingRights(), decoded.getCastlingRights());
+        Assertions.assertEquals(game.capturableEnPassantPawn(), decoded.capturableEnPassantPawn());
+
+        if (depth > 0) {
+            MoveList moves = new MoveList();
+            game.generateLegalMoves(game.getTeamTurn(), moves);
+            for (int i = 0; i < moves.size(); i++) {
+                game.makeMove(moves.get(i));
+                checkTree(game, depth - 1, buffer, decoded);
+                game.unmakeMove();
+            }
+        }
+    }
+}
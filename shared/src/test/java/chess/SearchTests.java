@@ -0,0 +1,63 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Finds Back Rank Mate")
+    public void findsMateInOne() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                | | | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |P|P|P|
+                |R| | | | | |K| |
+                """, ChessGame.TeamColor.WHITE);
+        ChessGame before = new ChessGame(game);
+        Search search = new Search();
+
+        ChessMove move = search.findBestMove(game, 4, 10_000);
+        Assertions.assertEquals(EngineTestUtilities.move(1, 1, 8, 1), move);
+        Assertions.assertEquals(Search.MATE_SCORE - 1, search.getScore());
+        Assertions.assertEquals(before, game, "Searching should not change the game");
+    }
+
+    @Test
+    @DisplayName("Takes A Hanging Queen")
+    public void takesHangingQueen() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |q| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |R|K| | | |
+                """, ChessGame.TeamColor.WHITE);
+        ChessMove move = new Search().findBestMove(game, 3, 10_000);
+        Assertions.assertEquals(EngineTestUtilities.move(1, 4, 5, 4), move);
+    }
+
+    @Test
+    @DisplayName("No Move When Checkmated")
+    public void noMoveWhenMated() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                |R| | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |P|P|P|
+                | | | | | | |K| |
+                """, ChessGame.TeamColor.BLACK);
+        Assertions.assertNull(new Search().findBestMove(game, 100));
+    }
+}
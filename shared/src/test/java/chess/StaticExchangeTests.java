@@ -0,0 +1,73 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class StaticExchangeTests {
+
+    @Test
+    @DisplayName("Defended Pawn Costs The Rook")
+    public void losingCapture() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                | | | | | | |k| |
+                | | | | | | | | |
+                | | | | |p| | | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |R| | |K| |
+                """);
+        Assertions.assertEquals(100 - 500, StaticExchange.evaluate(game, EngineTestUtilities.move(1, 4, 5, 4)));
+    }
+
+    @Test
+    @DisplayName("Undefended Piece Is Won Outright")
+    public void winningCapture() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                | | | | | | |k| |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |b| | | | |
+                | | | | | | | | |
+                | | | | |N| | | |
+                | | | | | | | | |
+                | | | | | | |K| |
+                """);
+        Assertions.assertEquals(330, StaticExchange.evaluate(game, EngineTestUtilities.move(3, 5, 5, 4)));
+    }
+
+    @Test
+    @DisplayName("Rook Behind Rook Recaptures Through The X-Ray")
+    public void xrayRecapture() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                |k| | |r| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |n| | | | |
+                | | | | | | | | |
+                | | | |R| | | | |
+                | | | | | | | | |
+                | | | |R| | | |K|
+                """);
+        Assertions.assertEquals(320, StaticExchange.evaluate(game, EngineTestUtilities.move(3, 4, 5, 4)));
+    }
+
+    @Test
+    @DisplayName("Quiescence Sees The Recapture Past The Horizon")
+    public void searchAvoidsPoisonedPawn() {
+        ChessGame game = EngineTestUtilities.gameWithBoard("""
+                | | | | | | |k| |
+                | | | | | | | | |
+                | | | | |p| | | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |Q| | |K| |
+                """);
+        ChessMove move = new Search().findBestMove(game, 1, 10_000);
+        Assertions.assertNotEquals(EngineTestUtilities.move(1, 4, 5, 4), move);
+    }
+}
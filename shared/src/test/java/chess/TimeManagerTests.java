@@ -0,0 +1,63 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TimeManagerTests {
+
+    @Test
+    @DisplayName("Budget Comes From The Game Clock")
+    public void budgetFromClock() {
+        TimeManager timeManager = new TimeManager(() -> 0L);
+        timeManager.start(60_050, 0, 0);
+        Assertions.assertEquals(2_000, timeManager.getSoftLimitMillis());
+        Assertions.assertEquals(6_000, timeManager.getHardLimitMillis());
+
+        timeManager.start(10_050, 2_000, 0);
+        Assertions.assertEquals(333 + 1_500, timeManager.getSoftLimitMillis());
+
+        // The last move before a time control may use most, but not all, of the clock
+        timeManager.start(8_050, 0, 1);
+        Assertions.assertEquals(7_000, timeManager.getHardLimitMillis());
+        Assertions.assertEquals(7_000, timeManager.getSoftLimitMillis());
+    }
+
+    @Test
+    @DisplayName("Clock Is Read Once Per Check Interval")
+    public void sampledChecks() {
+        long[] now = {0};
+        int[] reads = {0};
+        TimeManager timeManager = new TimeManager(() -> {
+            reads[0]++;
+            return now[0];
+        });
+        timeManager.startFixed(10);
+        reads[0] = 0;
+
+        now[0] = 11_000_000L;
+        for (int i = 1; i < TimeManager.CHECK_INTERVAL; i++) {
+            Assertions.assertFalse(timeManager.isTimeUp());
+        }
+        Assertions.assertEquals(0, reads[0]);
+        Assertions.assertTrue(timeManager.isTimeUp());
+        Assertions.assertEquals(1, reads[0]);
+        Assertions.assertFalse(timeManager.canStartIteration());
+    }
+
+    @Test
+    @DisplayName("Search Stops At The Hard Limit Of A Test Clock")
+    public void searchStopsDeterministically() {
+        // Every clock read advances time by one millisecond
+        long[] now = {0};
+        TimeManager timeManager = new TimeManager(() -> now[0] += 1_000_000L);
+        Search search = new Search(new TranspositionTable(1), timeManager);
+
+        ChessMove move = search.findBestMove(new ChessGame(), Search.MAX_PLY, 20);
+        Assertions.assertNotNull(move);
+        Assertions.assertTrue(search.getDepth() >= 1);
+        Assertions.assertTrue(search.getDepth() < Search.MAX_PLY);
+        Assertions.assertTrue(search.getNodes() <= 21L * TimeManager.CHECK_INTERVAL,
+                "Searched " + search.getNodes() + " nodes");
+    }
+}
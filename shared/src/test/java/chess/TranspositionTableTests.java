@@ -0,0 +1,42 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Stored Entry Reads Back")
+    public void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = new ChessGame().getZobristKey();
+        int move = Move.encode(Bitboards.square(2, 5), Bitboards.square(4, 5), null, Move.DOUBLE_PUSH);
+        table.store(key, 7, TranspositionTable.LOWER_BOUND, -Search.MATE_SCORE + 3, move);
+
+        long entry = table.probe(key);
+        Assertions.assertEquals(move, TranspositionTable.move(entry));
+        Assertions.assertEquals(-Search.MATE_SCORE + 3, TranspositionTable.score(entry));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+        Assertions.assertEquals(0, table.probe(key ^ 1L << 40), "A different key in the same bucket should miss");
+    }
+
+    @Test
+    @DisplayName("Deep Entry Survives Shallow Stores")
+    public void depthPreferredReplacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long deepKey = 0x1234L;
+        table.store(deepKey, 10, TranspositionTable.EXACT, 50, Move.NONE);
+        // Keys that differ only above the index bits land in the same bucket
+        for (long i = 1; i <= 3; i++) {
+            table.store(deepKey | i << 48, 2, TranspositionTable.EXACT, 0, Move.NONE);
+        }
+        Assertions.assertEquals(50, TranspositionTable.score(table.probe(deepKey)));
+        Assertions.assertNotEquals(0, table.probe(deepKey | 3L << 48));
+
+        table.newSearch();
+        table.store(deepKey | 4L << 48, 1, TranspositionTable.EXACT, 0, Move.NONE);
+        Assertions.assertEquals(0, table.probe(deepKey), "Entries from an old search should be replaced first");
+    }
+}
@@ -0,0 +1,49 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+public class UnmakeMoveTests {
+
+    @Test
+    @DisplayName("Unmake Restores Castling, En Passant and Promotion")
+    public void unmakeRestoresSpecialMoves() throws InvalidMoveException {
+        ChessBoard board = TestUtilities.loadBoard("""
+                |r| | | |k| | |r|
+                | |P| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | |P| | | |
+                |R| | | |K| | |R|
+                """);
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        ChessBoard original = new ChessBoard(board);
+        int castlingRights = game.getCastlingRights();
+        long key = game.getZobristKey();
+
+        game.makeMove(EngineTestUtilities.move(2, 5, 4, 5));
+        game.makeMove(EngineTestUtilities.move(4, 4, 3, 5));
+        game.makeMove(EngineTestUtilities.move(7, 2, 8, 1, ChessPiece.PieceType.KNIGHT));
+        game.makeMove(EngineTestUtilities.move(8, 5, 8, 7));
+        game.makeMove(EngineTestUtilities.move(1, 5, 1, 3));
+
+        for (int i = 0; i < 5; i++) {
+            game.unmakeMove();
+        }
+
+        Assertions.assertEquals(original, game.getBoard(), "Board not restored after unmaking moves");
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn(), "Turn not restored");
+        Assertions.assertNull(game.getEnPassantVulnerablePawn(), "En passant state not restored");
+        Assertions.assertEquals(castlingRights, game.getCastlingRights(), "Castling rights not restored");
+        Assertions.assertEquals(key, game.getZobristKey(), "Zobrist key not restored");
+        Assertions.assertTrue(game.validMoves(new ChessPosition(1, 5))
+                        .contains(EngineTestUtilities.move(1, 5, 1, 7)),
+                "Castling rights not restored");
+        Assertions.assertThrows(IllegalStateException.class, game::unmakeMove);
+    }
+}
@@ -0,0 +1,70 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Transposed Move Orders Reach The Same Key")
+    public void transpositionsShareKey() throws InvalidMoveException {
+        ChessGame first = new ChessGame();
+        first.makeMove(EngineTestUtilities.move(1, 7, 3, 6));
+        first.makeMove(EngineTestUtilities.move(8, 7, 6, 6));
+        first.makeMove(EngineTestUtilities.move(1, 2, 3, 3));
+
+        ChessGame second = new ChessGame();
+        second.makeMove(EngineTestUtilities.move(1, 2, 3, 3));
+        second.makeMove(EngineTestUtilities.move(8, 7, 6, 6));
+        second.makeMove(EngineTestUtilities.move(1, 7, 3, 6));
+
+        Assertions.assertEquals(first.getZobristKey(), second.getZobristKey());
+        Assertions.assertNotEquals(new ChessGame().getZobristKey(), first.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Incremental Key Matches A Freshly Built Board")
+    public void incrementalKeyMatchesRebuild() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        long startKey = game.getZobristKey();
+        game.makeMove(EngineTestUtilities.move(2, 5, 4, 5));
+        game.makeMove(EngineTestUtilities.move(7, 4, 5, 4));
+        game.makeMove(EngineTestUtilities.move(4, 5, 5, 4));
+
+        ChessBoard rebuilt = TestUtilities.loadBoard("""
+                |r|n|b|q|k|b|n|r|
+                |p|p|p| |p|p|p|p|
+                | | | | | | | | |
+                | | | |P| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |P|P|P|P| |P|P|P|
+                |R|N|B|Q|K|B|N|R|
+                """);
+        Assertions.assertEquals(rebuilt.getZobristKey(), game.getBoard().getZobristKey());
+
+        game.unmakeMove();
+        game.unmakeMove();
+        game.unmakeMove();
+        Assertions.assertEquals(startKey, game.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("En Passant Only Counts When The Capture Is Legal")
+    public void enPassantOnlyWhenCapturable() throws InvalidMoveException {
+        // After 1. e4 no black pawn can take en passant
+        ChessGame game = new ChessGame();
+        game.makeMove(EngineTestUtilities.move(2, 5, 4, 5));
+        Assertions.assertEquals(Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1").getZobristKey(),
+                game.getZobristKey());
+
+        Assertions.assertNotEquals(Fen.parse("4k3/8/8/8/3Pp3/8/8/4K3 b - - 0 1").getZobristKey(),
+                Fen.parse("4k3/8/8/8/3Pp3/8/8/4K3 b - d3 0 1").getZobristKey());
+
+        // Taking en passant would leave the black king on a4 in check from h4
+        Assertions.assertEquals(Fen.parse("8/8/8/8/k2Pp2Q/8/8/3K4 b - - 0 1").getZobristKey(),
+                Fen.parse("8/8/8/8/k2Pp2Q/8/8/3K4 b - d3 0 1").getZobristKey());
+    }
+}